@@ -0,0 +1,77 @@
+package study.datajpa.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.repository.support.BulkWriteResult;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 회원 10만명 insert 시 auditing 비용 비교
+ * - perTransaction = false : 엔티티마다 UUID.randomUUID() (SecureRandom), LocalDateTime.now()
+ * - perTransaction = true  : 트랜잭션마다 한번만 등록자/시각을 구해서 공유
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+public class AuditingBenchmark {
+
+    private static final int ROWS = 100_000;
+
+    @Param({"false", "true"})
+    boolean perTransaction;
+
+    private ConfigurableApplicationContext context;
+    private MemberRepository memberRepository;
+    private JdbcTemplate jdbc;
+    private List<Member> members;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = JpaContext.start("auditing" + perTransaction, "datajpa.auditing.per-transaction=" + perTransaction);
+        JpaContext.assertProperty(context, "datajpa.auditing.per-transaction", String.valueOf(perTransaction));
+        memberRepository = context.getBean(MemberRepository.class);
+        jdbc = context.getBean(JdbcTemplate.class);
+    }
+
+    @Setup(Level.Iteration)
+    public void newMembers() {
+        members = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            members.add(new Member("auditing" + i, 6000));
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void deleteMembers() {
+        jdbc.update("delete from member where age = 6000");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public BulkWriteResult insert100k() {
+        return memberRepository.saveAllInBatch(members);
+    }
+}
@@ -0,0 +1,90 @@
+package study.datajpa.benchmark;
+
+import org.hibernate.engine.spi.SelfDirtinessTracker;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+import study.datajpa.entity.Member;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 영속성 컨텍스트에 회원 managed명이 있을 때 flush 한번의 비용 (그 중 DIRTY명만 수정)
+ * - 향상 X : flush마다 managed명 전부 스냅샷과 필드를 하나씩 비교
+ * - 향상 O : 엔티티가 기록한 변경 필드만 확인 (SelfDirtinessTracker)
+ * 바이트코드 향상은 빌드 시점에 정해지므로 두번 실행해서 비교 (기본 빌드는 향상 X)
+ * ./gradlew jmh                         -> build/reports/jmh/results.json (향상 X)
+ * ./gradlew jmh -PhibernateEnhance=true -> build/reports/jmh/results-enhanced.json (향상 O)
+ */
+@State(Scope.Thread) // 트랜잭션이 스레드에 묶이므로 setup과 측정을 같은 스레드에서
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class FlushBenchmark {
+
+    private static final int DIRTY = 10;
+
+    @Param({"1000", "10000", "50000"})
+    int managed;
+
+    private ConfigurableApplicationContext context;
+    private PlatformTransactionManager transactionManager;
+    private EntityManager em;
+    private TransactionStatus transaction;
+    private List<Member> members;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = JpaContext.start("flush" + managed);
+        JpaContext.seed(context, managed / 10, managed);
+        transactionManager = context.getBean(PlatformTransactionManager.class);
+        em = SharedEntityManagerCreator.createSharedEntityManager(context.getBean(EntityManagerFactory.class));
+        System.out.println("bytecode enhanced dirty tracking : " + SelfDirtinessTracker.class.isAssignableFrom(Member.class));
+    }
+
+    /**
+     * 쓰기 트랜잭션을 열고 회원 managed명을 영속성 컨텍스트에 올려둠 (iteration 동안 유지, 끝나면 롤백)
+     */
+    @Setup(Level.Iteration)
+    public void loadMembers() {
+        transaction = transactionManager.getTransaction(new DefaultTransactionDefinition());
+        members = em.createQuery("select m from Member m where m.id > 100000000 order by m.id", Member.class)
+                .getResultList();
+        next = 0;
+    }
+
+    @TearDown(Level.Iteration)
+    public void rollback() {
+        transactionManager.rollback(transaction);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void flush() {
+        for (int i = 0; i < DIRTY; i++) {
+            Member member = members.get(next);
+            member.setAge(member.getAge() + 1);
+            next = (next + 1) % members.size();
+        }
+        em.flush();
+    }
+}
@@ -0,0 +1,78 @@
+package study.datajpa.benchmark;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.DataJpaApplication;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 벤치마크용 스프링 컨텍스트 (웹 서버 없이, 내장 H2 메모리 DB, SQL 로그 끔)
+ */
+final class JpaContext {
+
+    private JpaContext() {
+    }
+
+    /**
+     * extraProperties : "key=value" 형식의 추가 설정
+     * application.yml 보다 우선하도록 커맨드라인 인자(--key=value)로 넘김 (setDefaultProperties는 우선순위가 가장 낮아서 yml 값이 이김)
+     */
+    static ConfigurableApplicationContext start(String databaseName, String... extraProperties) {
+        List<String> args = new ArrayList<>();
+        args.add("--spring.datasource.url=jdbc:h2:mem:" + databaseName + ";DB_CLOSE_DELAY=-1");
+        args.add("--logging.level.root=warn");
+        args.add("--logging.level.org.hibernate.SQL=warn");
+        args.add("--decorator.datasource.p6spy.enable-logging=false");
+        args.add("--spring.devtools.restart.enabled=false");
+        for (String property : extraProperties) {
+            args.add("--" + property);
+        }
+
+        SpringApplication application = new SpringApplication(DataJpaApplication.class);
+        application.setWebApplicationType(WebApplicationType.NONE);
+        ConfigurableApplicationContext context = application.run(args.toArray(new String[0]));
+        String url = context.getEnvironment().getProperty("spring.datasource.url");
+        if (url == null || !url.startsWith("jdbc:h2:mem:")) {
+            context.close();
+            throw new IllegalStateException("벤치마크는 H2 메모리 DB에서만 실행 : spring.datasource.url=" + url);
+        }
+        return context;
+    }
+
+    /**
+     * 실행 중인 컨텍스트에서 설정값이 의도한 값으로 적용됐는지 확인 (@Param으로 넘긴 설정이 yml에 덮어써지지 않았는지)
+     */
+    static void assertProperty(ConfigurableApplicationContext context, String key, String expected) {
+        String actual = context.getEnvironment().getProperty(key);
+        if (!expected.equals(actual)) {
+            context.close();
+            throw new IllegalStateException(key + " 설정이 적용되지 않음 : expected=" + expected + ", actual=" + actual);
+        }
+    }
+
+    /**
+     * 팀 teams개, 회원 members명 (팀에 골고루 소속) 을 insert ... select 로 한번에 저장
+     * id는 시퀀스와 겹치지 않도록 큰 값부터 사용, 수정할 수 있도록 @Version 값은 0
+     */
+    static void seed(ConfigurableApplicationContext context, int teams, int members) {
+        JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+        long base = 100_000_000L;
+        jdbc.update("insert into team (id, version, name, created_date, updated_date) " +
+                "select x + ?, 0, concat('team', x), now(), now() from system_range(1, ?)", base, teams);
+        jdbc.update("insert into member (id, version, age, user_name, team_id, created_date, last_modified_date) " +
+                "select x + ?, 0, mod(x, 50), concat('member', lpad(x, 8, '0')), mod(x, ?) + 1 + ?, now(), now() " +
+                "from system_range(1, ?)", base, teams, base, members);
+    }
+
+    static TransactionTemplate readOnlyTx(ConfigurableApplicationContext context) {
+        TransactionTemplate tx = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        tx.setReadOnly(true);
+        return tx;
+    }
+}
@@ -0,0 +1,144 @@
+package study.datajpa.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberJpaRepository;
+import study.datajpa.repository.MemberRepository;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 리파지토리 주요 조회 메서드 비교
+ * - 팀까지 조회 : 페치조인 vs @EntityGraph findAll vs 지연로딩(배치 페치)
+ * - 페이징 : Page(count 쿼리 O) vs Slice(count 쿼리 X), offset vs 키셋 (같은 정렬, 같은 위치)
+ * - 순수 JPA(MemberJpaRepository) vs 스프링 데이터 JPA(MemberRepository) : 같은 모양의 쿼리끼리
+ * 회원 수(memberCount)별로 측정, 팀은 회원 10명당 1개
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class MemberQueryBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+    private static final String USER_NAME = "member00000501"; // JpaContext.seed 이름 형식, age = 1
+
+    @Param({"1000", "10000"})
+    int memberCount;
+
+    private ConfigurableApplicationContext context;
+    private MemberRepository memberRepository;
+    private MemberJpaRepository memberJpaRepository;
+    private TransactionTemplate tx;
+    private String page11Cursor; // 키셋으로 10페이지를 넘긴 위치 (offset 10 * PAGE_SIZE와 같은 위치)
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = JpaContext.start("memberQuery" + memberCount);
+        JpaContext.seed(context, memberCount / 10, memberCount);
+        memberRepository = context.getBean(MemberRepository.class);
+        memberJpaRepository = context.getBean(MemberJpaRepository.class);
+        tx = JpaContext.readOnlyTx(context);
+        page11Cursor = tx.execute(status -> {
+            String cursor = null;
+            for (int i = 0; i < 10; i++) {
+                cursor = memberRepository.findAllKeyset(cursor, PAGE_SIZE).getNextCursor();
+            }
+            return cursor;
+        });
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void fetchJoin(Blackhole bh) {
+        tx.executeWithoutResult(status -> touchTeams(memberRepository.findMemberFetchJoin(), bh));
+    }
+
+    @Benchmark
+    public void entityGraphFindAll(Blackhole bh) {
+        tx.executeWithoutResult(status -> touchTeams(memberRepository.findAll(), bh));
+    }
+
+    @Benchmark
+    public void lazyLoading(Blackhole bh) {
+        tx.executeWithoutResult(status -> touchTeams(memberRepository.findMemberCustom(), bh));
+    }
+
+    @Benchmark
+    public Object page() {
+        return tx.execute(status -> memberRepository.findAll(PageRequest.of(10, PAGE_SIZE, Sort.by("id"))).getContent());
+    }
+
+    @Benchmark
+    public Object slice() {
+        return tx.execute(status -> memberRepository.findSliceBy(PageRequest.of(10, PAGE_SIZE, Sort.by("id"))).getContent());
+    }
+
+    @Benchmark
+    public Object dtoPage() {
+        return tx.execute(status -> memberRepository.findMemberDtoPage(PageRequest.of(10, PAGE_SIZE, Sort.by("id"))).getContent());
+    }
+
+    /**
+     * offset vs 키셋 : 같은 정렬(userName desc, id desc), 같은 위치(11번째 페이지), 둘 다 count 쿼리 없음
+     */
+    @Benchmark
+    public Object offsetSlice() {
+        return tx.execute(status -> memberRepository.findSliceBy(
+                PageRequest.of(10, PAGE_SIZE, Sort.by(Sort.Direction.DESC, "userName", "id"))).getContent());
+    }
+
+    @Benchmark
+    public Object keyset() {
+        return tx.execute(status -> memberRepository.findAllKeyset(page11Cursor, PAGE_SIZE).getContent());
+    }
+
+    /**
+     * 순수 JPA vs 스프링 데이터 JPA : 같은 JPQL 모양의 쿼리를 각 리파지토리로 실행
+     */
+    @Benchmark
+    public Object jpaRepositoryFindByUserNameAndAge() {
+        return tx.execute(status -> memberJpaRepository.findByUserNameAndAgeGreaterThen(USER_NAME, 0));
+    }
+
+    @Benchmark
+    public Object springDataFindByUserNameAndAge() {
+        return tx.execute(status -> memberRepository.findByUserNameAndAgeGreaterThan(USER_NAME, 0));
+    }
+
+    @Benchmark
+    public Object jpaRepositoryCount() {
+        return tx.execute(status -> memberJpaRepository.count());
+    }
+
+    @Benchmark
+    public Object springDataCount() {
+        return tx.execute(status -> memberRepository.count());
+    }
+
+    private void touchTeams(List<Member> members, Blackhole bh) {
+        for (Member member : members) {
+            if (member.getTeam() != null) {
+                bh.consume(member.getTeam().getName());
+            }
+        }
+    }
+}
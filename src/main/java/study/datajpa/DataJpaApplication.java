@@ -1,16 +1,23 @@
 package study.datajpa;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.Bean;
 import org.springframework.data.domain.AuditorAware;
 import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import study.datajpa.config.TransactionScoped;
+import study.datajpa.config.UnitOfWorkClock;
 
+import java.time.Clock;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
 
-@EnableJpaAuditing
+@EnableJpaAuditing(dateTimeProviderRef = "unitOfWorkClock")
+@EnableScheduling // UserNameFilterLoader 주기적 rebuild
 @SpringBootApplication
 public class DataJpaApplication {
 
@@ -18,12 +25,41 @@ public class DataJpaApplication {
 		SpringApplication.run(DataJpaApplication.class, args);
 	}
 
+	/**
+	 * datajpa.auditing.per-transaction=true (기본) 이면 등록자/수정자 값을 트랜잭션마다 한번만 만들어서 공유
+	 * UUID.randomUUID()는 SecureRandom을 사용해서 비싸므로 ThreadLocalRandom으로 만든다. (보안용 값이 아님)
+	 */
 	@Bean
-	public AuditorAware<String> auditorProvider() {
-		return () -> Optional.of(UUID.randomUUID().toString());
+	public AuditorAware<String> auditorProvider(@Value("${datajpa.auditing.per-transaction:true}") boolean perTransaction) {
+		if (!perTransaction) {
+			return () -> Optional.of(UUID.randomUUID().toString());
+		}
+		TransactionScoped<Optional<String>> auditor = new TransactionScoped<>(() -> {
+			ThreadLocalRandom random = ThreadLocalRandom.current();
+			return Optional.of(new UUID(random.nextLong(), random.nextLong()).toString());
+		});
+		return auditor::get;
 	}
 
 	// @CreateBy와 @LastModifiedBy가 호출될 때마다 auditorProvider 메서드가 동작해서
 	// 아이디를 꺼내와 값을 채워준다.
 
+	/**
+	 * 테스트에서 시간을 바꾸려면 @Primary Clock 빈을 등록 (TimestampListenerTest 참고)
+	 */
+	@Bean
+	public Clock clock() {
+		return Clock.systemDefaultZone();
+	}
+
+	/**
+	 * 엔티티 등록/수정 시간을 채울 때 사용하는 시계 (TimestampListener)
+	 * per-transaction이면 트랜잭션 안의 모든 엔티티가 같은 시각을 공유
+	 */
+	@Bean
+	public UnitOfWorkClock unitOfWorkClock(Clock clock,
+										   @Value("${datajpa.auditing.per-transaction:true}") boolean perTransaction) {
+		return new UnitOfWorkClock(clock, perTransaction);
+	}
+
 }
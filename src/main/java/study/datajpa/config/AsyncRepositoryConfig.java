@@ -0,0 +1,58 @@
+package study.datajpa.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * 리파지토리 @Async 메서드(CompletableFuture 반환)를 실행하는 스레드 풀
+ * 컨트롤러가 CompletableFuture를 반환하면 톰캣 스레드는 바로 반납되고(서블릿 비동기),
+ * JDBC 호출은 이 풀의 스레드가 대신 기다린다. 그래서 톰캣 스레드 수와 상관없이 동시 요청을 받을 수 있다.
+ *
+ * 풀 크기는 커넥션 풀(hikari maximum-pool-size)과 따로 설정
+ * - 커넥션 풀보다 크게 잡으면 남는 스레드는 커넥션을 기다림 (큐 역할)
+ * - queue-capacity까지 차면 TaskRejectedException -> 503 (MemberController)
+ * 자바 21 이상으로 올리면 스레드 풀 대신 가상 스레드 (setVirtualThreads / Executors.newVirtualThreadPerTaskExecutor) 사용 가능
+ *
+ * ThreadPoolTaskExecutor 빈은 스프링 부트가 executor.* 메트릭으로 자동 등록해준다. (/actuator/metrics/executor.active)
+ */
+@Configuration
+@EnableAsync
+public class AsyncRepositoryConfig {
+
+    public static final String REPOSITORY_EXECUTOR = "repositoryExecutor";
+    public static final String PAGE_COUNT_EXECUTOR = "pageCountExecutor";
+
+    @Bean(REPOSITORY_EXECUTOR)
+    public ThreadPoolTaskExecutor repositoryExecutor(@Value("${datajpa.async.pool-size:20}") int poolSize,
+                                                     @Value("${datajpa.async.queue-capacity:1000}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("repository-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        return executor;
+    }
+
+    /**
+     * 페이지 count 쿼리를 content 쿼리와 동시에 실행하는 스레드 풀 (ParallelCountExecutor)
+     * 스레드마다 커넥션을 하나씩 더 쓰므로 hikari maximum-pool-size보다 충분히 작게
+     * 큐가 가득 차면 TaskRejectedException -> ParallelCountExecutor가 호출한 트랜잭션에서 순서대로 실행
+     * (CallerRunsPolicy를 쓰면 호출한 스레드가 커넥션을 잡은 채로 REQUIRES_NEW 커넥션을 하나 더 기다리게 됨)
+     * 큐에서 기다리는 동안에도 호출한 쪽은 커넥션을 잡고 있으므로 기본은 큐 없이 (queue-capacity 0)
+     */
+    @Bean(PAGE_COUNT_EXECUTOR)
+    public ThreadPoolTaskExecutor pageCountExecutor(@Value("${datajpa.paging.parallel-count.pool-size:5}") int poolSize,
+                                                    @Value("${datajpa.paging.parallel-count.queue-capacity:0}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("page-count-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        return executor;
+    }
+}
@@ -0,0 +1,96 @@
+package study.datajpa.config;
+
+import com.zaxxer.hikari.HikariConfigMXBean;
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.jdbc.DataSourceUnwrapper;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 시작 시 커넥션 풀 크기, 톰캣 스레드 수, 예상 동시 요청 수가 서로 맞는지 확인해서 경고 로그를 남김
+ * - 풀 < 예상 동시 DB 사용 수 : 남는 요청은 connection-timeout 동안 커넥션을 기다림 (hikaricp.connections.pending 증가)
+ * - 풀 > 커넥션을 쓸 수 있는 스레드 수 (톰캣 + repositoryExecutor + pageCountExecutor) : 쓰이지 않는 커넥션이 DB 자원만 차지
+ * - 예상 동시 요청 > 톰캣 스레드 : 동기 핸들러 요청은 톰캣 accept 큐에서 대기
+ * - minimum-idle < maximum-pool-size : 부하가 올 때마다 커넥션을 새로 맺음 (hikari는 고정 크기 풀을 권장)
+ *
+ * 풀 상태 메트릭은 스프링 부트가 hikari 풀마다 자동으로 등록 (pool 태그 = pool-name)
+ * hikaricp.connections.active / idle / pending, hikaricp.connections.acquire (히스토그램은 application.yml)
+ */
+@Slf4j
+@Component
+public class ConnectionPoolSizingCheck {
+
+    private final List<HikariDataSource> pools;
+    private final int tomcatThreads;
+    private final int asyncPoolSize;
+    private final int pageCountPoolSize;
+    private final int expectedConcurrency;
+
+    public ConnectionPoolSizingCheck(Map<String, DataSource> dataSources,
+                                     @Value("${server.tomcat.threads.max:200}") int tomcatThreads,
+                                     @Value("${datajpa.async.pool-size:20}") int asyncPoolSize,
+                                     @Value("${datajpa.paging.parallel-count.pool-size:5}") int pageCountPoolSize,
+                                     @Value("${datajpa.pool.expected-concurrency:0}") int expectedConcurrency) {
+        this.pools = hikariPools(dataSources);
+        this.tomcatThreads = tomcatThreads;
+        this.asyncPoolSize = asyncPoolSize;
+        this.pageCountPoolSize = pageCountPoolSize;
+        this.expectedConcurrency = expectedConcurrency;
+    }
+
+    /**
+     * p6spy, 라우팅 DataSource 등에 감싸져 있어도 실제 hikari 풀을 꺼냄 (같은 풀은 한번만)
+     */
+    public static List<HikariDataSource> hikariPools(Map<String, DataSource> dataSources) {
+        Set<HikariDataSource> unique = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (DataSource dataSource : dataSources.values()) {
+            HikariDataSource hikari = DataSourceUnwrapper.unwrap(dataSource, HikariConfigMXBean.class, HikariDataSource.class);
+            if (hikari != null) {
+                unique.add(hikari);
+            }
+        }
+        return new ArrayList<>(unique);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void logWarnings() {
+        check().forEach(warning -> log.warn("[connection pool] {}", warning));
+    }
+
+    public List<String> check() {
+        List<String> warnings = new ArrayList<>();
+        int workers = tomcatThreads + asyncPoolSize + pageCountPoolSize;
+        for (HikariDataSource pool : pools) {
+            String name = pool.getPoolName();
+            int size = pool.getMaximumPoolSize();
+            if (size > workers) {
+                warnings.add(String.format("%s maximum-pool-size(%d) > tomcat threads(%d) + datajpa.async.pool-size(%d) + parallel-count.pool-size(%d) : 쓰이지 않는 커넥션",
+                        name, size, tomcatThreads, asyncPoolSize, pageCountPoolSize));
+            }
+            if (expectedConcurrency > size) {
+                warnings.add(String.format("%s maximum-pool-size(%d) < datajpa.pool.expected-concurrency(%d) : 요청이 최대 connection-timeout(%dms) 동안 커넥션 대기",
+                        name, size, expectedConcurrency, pool.getConnectionTimeout()));
+            }
+            if (pool.getMinimumIdle() < size) {
+                warnings.add(String.format("%s minimum-idle(%d) < maximum-pool-size(%d) : 부하 시 커넥션을 새로 맺음 (고정 크기 풀 권장)",
+                        name, pool.getMinimumIdle(), size));
+            }
+        }
+        if (expectedConcurrency > tomcatThreads) {
+            warnings.add(String.format("server.tomcat.threads.max(%d) < datajpa.pool.expected-concurrency(%d) : 동기 핸들러 요청은 accept 큐에서 대기 (/async/** 사용 고려)",
+                    tomcatThreads, expectedConcurrency));
+        }
+        return warnings;
+    }
+}
@@ -0,0 +1,65 @@
+package study.datajpa.config;
+
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.WebUtils;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.Cookie;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * read-your-writes를 요청 스레드가 아니라 클라이언트 기준으로 유지 (ReplicaRoutingDataSource)
+ * 쓰기 트랜잭션이 끝나면 그 시각을 쿠키로 내려주고, 다음 요청에서 쿠키를 읽어 호출자로 바인딩한다.
+ * 요청이 끝나면 바인딩을 해제하므로 같은 톰캣 스레드를 다음에 쓰는 다른 클라이언트는 replica에서 읽는다.
+ *
+ * ★주의: 응답이 이미 커밋된 뒤(스트리밍 응답 등)에 끝난 쓰기는 쿠키를 내려줄 수 없다.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    public static final String COOKIE_NAME = "datajpa-last-write";
+
+    private final ReplicaRoutingDataSource replicaRoutingDataSource;
+
+    public ReadYourWritesFilter(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        this.replicaRoutingDataSource = replicaRoutingDataSource;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        replicaRoutingDataSource.bindCaller(lastWrite(request), writtenAt -> {
+            if (!response.isCommitted()) {
+                response.addCookie(cookie(writtenAt));
+            }
+        });
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            replicaRoutingDataSource.unbindCaller();
+        }
+    }
+
+    private long lastWrite(HttpServletRequest request) {
+        Cookie cookie = WebUtils.getCookie(request, COOKIE_NAME);
+        if (cookie == null) {
+            return 0;
+        }
+        try {
+            return Long.parseLong(cookie.getValue());
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private Cookie cookie(long writtenAt) {
+        Cookie cookie = new Cookie(COOKIE_NAME, Long.toString(writtenAt));
+        cookie.setPath("/");
+        cookie.setHttpOnly(true);
+        // window가 지나면 쿠키가 있어도 replica에서 읽으므로 그때까지만 유지 (초 단위 올림)
+        cookie.setMaxAge((int) ((replicaRoutingDataSource.getReadYourWritesWindow().toMillis() + 999) / 1000));
+        return cookie;
+    }
+}
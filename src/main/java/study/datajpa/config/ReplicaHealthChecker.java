@@ -0,0 +1,18 @@
+package study.datajpa.config;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * replica 커넥션 상태를 주기적으로 확인해서 장애 시 primary로, 복구되면 다시 replica로 읽기를 보냄
+ */
+@RequiredArgsConstructor
+public class ReplicaHealthChecker {
+
+    private final ReplicaRoutingDataSource replicaRoutingDataSource;
+
+    @Scheduled(fixedDelayString = "${datajpa.datasource.routing.health-check-interval-ms:5000}")
+    public void check() {
+        replicaRoutingDataSource.checkReplica();
+    }
+}
@@ -0,0 +1,78 @@
+package study.datajpa.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * primary / replica DataSource 라우팅 설정 (datajpa.datasource.routing.enabled=true 일 때만)
+ * primary : spring.datasource.*, replica : datajpa.datasource.replica.*
+ * 설정하지 않으면 스프링 부트가 spring.datasource로 DataSource 하나만 만든다.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "datajpa.datasource.routing", name = "enabled", havingValue = "true")
+public class ReplicaRoutingConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    /**
+     * replica 설정은 빈으로 등록하지 않고 직접 바인딩 (DataSourceProperties 빈이 두개가 되면 부트 자동설정에서 주입할 수 없음)
+     */
+    @Bean
+    public HikariDataSource replicaDataSource(Environment environment) {
+        Binder binder = Binder.get(environment);
+        DataSourceProperties properties = binder.bind("datajpa.datasource.replica", DataSourceProperties.class)
+                .orElseThrow(() -> new IllegalStateException("datajpa.datasource.replica.url 설정이 필요합니다."));
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        binder.bind("datajpa.datasource.replica.hikari", Bindable.ofInstance(dataSource));
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(HikariDataSource primaryDataSource,
+                                                             HikariDataSource replicaDataSource,
+                                                             Environment environment) {
+        Duration window = Binder.get(environment)
+                .bind("datajpa.datasource.routing.read-your-writes-window", Duration.class)
+                .orElse(Duration.ofSeconds(2));
+        return new ReplicaRoutingDataSource(primaryDataSource, replicaDataSource, window);
+    }
+
+    /**
+     * JPA가 사용하는 DataSource
+     * 트랜잭션 시작 시점이 아니라 첫 쿼리 시점에 커넥션을 가져와야 readOnly 여부로 라우팅할 수 있음
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+
+    /**
+     * Filter 빈은 스프링 부트가 서블릿 필터로 자동 등록
+     */
+    @Bean
+    public ReadYourWritesFilter readYourWritesFilter(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new ReadYourWritesFilter(replicaRoutingDataSource);
+    }
+
+    @Bean
+    public ReplicaHealthChecker replicaHealthChecker(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new ReplicaHealthChecker(replicaRoutingDataSource);
+    }
+}
@@ -0,0 +1,201 @@
+package study.datajpa.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.LongConsumer;
+
+/**
+ * 읽기 전용 트랜잭션(@Transactional(readOnly = true))은 replica로, 나머지는 primary로 보내는 DataSource
+ *
+ * - read-your-writes : 쓰기 트랜잭션을 실행한 호출자는 readYourWritesWindow 동안 읽기도 primary에서 한다.
+ *   (replica 복제 지연 때문에 방금 저장한 값이 안 보이는 문제 방지)
+ *   HTTP 요청은 ReadYourWritesFilter가 요청마다 호출자를 바인딩하고 마지막 쓰기 시각을 쿠키로 주고받으므로
+ *   다음 요청이 다른 톰캣 스레드에서 처리돼도 유지되고, 같은 스레드를 다음에 쓰는 다른 클라이언트에게는 영향이 없다.
+ *   요청 밖(스케줄러, @Async 실행 스레드, 테스트 등)에서는 호출자가 없으므로 같은 스레드 안에서만 보장된다.
+ * - replica 장애 : 커넥션 획득에 실패하거나 헬스체크(checkReplica)에 실패하면 다시 정상이 될 때까지 primary에서 읽는다.
+ *
+ * ★주의: 트랜잭션 시작 시점에는 아직 readOnly 여부가 동기화 매니저에 설정되지 않으므로
+ * LazyConnectionDataSourceProxy로 감싸서 실제 쿼리를 실행할 때 커넥션을 가져오게 해야 한다. (ReplicaRoutingConfig 참고)
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    public static final String PRIMARY = "primary";
+    public static final String REPLICA = "replica";
+
+    private static final ThreadLocal<Caller> CALLER = new ThreadLocal<>();
+    private static final ThreadLocal<Caller> THREAD = ThreadLocal.withInitial(() -> new Caller(0, null));
+
+    private final Object writeSynchronizationKey = new Object(); // 트랜잭션당 한번만 동기화 등록하기 위한 리소스 키
+
+    private final DataSource primary;
+    private final DataSource replica;
+    private final long readYourWritesWindowMillis;
+
+    private volatile boolean replicaHealthy = true;
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, Duration readYourWritesWindow) {
+        this.primary = primary;
+        this.replica = replica;
+        this.readYourWritesWindowMillis = readYourWritesWindow.toMillis();
+
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        targets.put(REPLICA, replica);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (TransactionSynchronizationManager.isActualTransactionActive()) {
+                recordWrite();
+            }
+            return PRIMARY;
+        }
+        if (!replicaHealthy || hasRecentWrite()) {
+            return PRIMARY;
+        }
+        return REPLICA;
+    }
+
+    /**
+     * replica 커넥션을 못 얻으면 replica를 장애 상태로 표시하고 primary로 대신 처리
+     */
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (REPLICA.equals(determineCurrentLookupKey())) {
+            try {
+                return replica.getConnection();
+            } catch (SQLException e) {
+                markReplicaDown(e);
+            }
+        }
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        if (REPLICA.equals(determineCurrentLookupKey())) {
+            try {
+                return replica.getConnection(username, password);
+            } catch (SQLException e) {
+                markReplicaDown(e);
+            }
+        }
+        return primary.getConnection(username, password);
+    }
+
+    /**
+     * replica 커넥션이 정상인지 확인하고 상태를 갱신 (ReplicaHealthChecker에서 주기적으로 호출)
+     */
+    public boolean checkReplica() {
+        try (Connection connection = replica.getConnection()) {
+            boolean valid = connection.isValid(1);
+            if (valid && !replicaHealthy) {
+                log.info("replica is healthy again, routing read-only transactions to replica");
+            }
+            replicaHealthy = valid;
+        } catch (SQLException e) {
+            markReplicaDown(e);
+        }
+        return replicaHealthy;
+    }
+
+    public boolean isReplicaHealthy() {
+        return replicaHealthy;
+    }
+
+    public Duration getReadYourWritesWindow() {
+        return Duration.ofMillis(readYourWritesWindowMillis);
+    }
+
+    /**
+     * 현재 스레드에 호출자(요청)를 바인딩 (ReadYourWritesFilter)
+     * lastWriteMillis : 호출자가 마지막으로 쓴 시각 (epoch millis, 없으면 0)
+     * onWrite : 이 호출자의 쓰기 트랜잭션이 끝날 때마다 그 시각으로 호출됨 (쿠키 갱신 등)
+     */
+    public void bindCaller(long lastWriteMillis, LongConsumer onWrite) {
+        CALLER.set(new Caller(lastWriteMillis, onWrite));
+    }
+
+    public void unbindCaller() {
+        CALLER.remove();
+    }
+
+    /**
+     * 호출자가 바인딩되지 않은 현재 스레드의 최근 쓰기 기록을 지움 (replica가 따라잡은 것을 알고 있을 때, 테스트 등)
+     */
+    public void clearRecentWrite() {
+        THREAD.remove();
+    }
+
+    /**
+     * 쓰기 트랜잭션이 끝난 시점부터 window를 계산하도록 커밋/롤백 후에도 한번 더 기록
+     * afterCompletion은 트랜잭션을 시작한 스레드에서 호출되므로 그때의 호출자를 다시 찾지 않고 잡아둠
+     */
+    private void recordWrite() {
+        Caller caller = currentCaller();
+        caller.lastWriteMillis = System.currentTimeMillis();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            caller.written(caller.lastWriteMillis);
+        } else if (!TransactionSynchronizationManager.hasResource(writeSynchronizationKey)) {
+            TransactionSynchronizationManager.bindResource(writeSynchronizationKey, Boolean.TRUE);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(writeSynchronizationKey);
+                    caller.written(System.currentTimeMillis());
+                }
+            });
+        }
+    }
+
+    private boolean hasRecentWrite() {
+        long elapsed = System.currentTimeMillis() - currentCaller().lastWriteMillis;
+        return elapsed >= 0 && elapsed < readYourWritesWindowMillis; // 미래 시각(위조된 쿠키 등)은 무시
+    }
+
+    private Caller currentCaller() {
+        Caller caller = CALLER.get();
+        return caller != null ? caller : THREAD.get();
+    }
+
+    private void markReplicaDown(SQLException e) {
+        if (replicaHealthy) {
+            log.warn("replica is unavailable, routing read-only transactions to primary", e);
+        }
+        replicaHealthy = false;
+    }
+
+    /**
+     * read-your-writes 판단 단위. 요청이면 요청마다 새로 만들고, 요청 밖이면 스레드마다 하나
+     */
+    private static final class Caller {
+
+        private volatile long lastWriteMillis;
+        private final LongConsumer onWrite;
+
+        private Caller(long lastWriteMillis, LongConsumer onWrite) {
+            this.lastWriteMillis = lastWriteMillis;
+            this.onWrite = onWrite;
+        }
+
+        private void written(long millis) {
+            lastWriteMillis = millis;
+            if (onWrite != null) {
+                onWrite.accept(millis);
+            }
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package study.datajpa.config;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.function.Supplier;
+
+/**
+ * 트랜잭션마다 한번만 만들어서 트랜잭션이 끝날 때까지 같은 값을 돌려주는 holder
+ * 트랜잭션 밖에서 호출하면 매번 새로 만든다.
+ */
+public class TransactionScoped<T> {
+
+    private final Supplier<T> factory;
+    private final Object key = new Object(); // TransactionSynchronizationManager 리소스 키
+
+    public TransactionScoped(Supplier<T> factory) {
+        this.factory = factory;
+    }
+
+    @SuppressWarnings("unchecked")
+    public T get() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return factory.get();
+        }
+        T value = (T) TransactionSynchronizationManager.getResource(key);
+        if (value == null) {
+            value = factory.get();
+            TransactionSynchronizationManager.bindResource(key, value);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(key);
+                }
+            });
+        }
+        return value;
+    }
+}
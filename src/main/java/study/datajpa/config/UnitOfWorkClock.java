@@ -0,0 +1,41 @@
+package study.datajpa.config;
+
+import org.springframework.data.auditing.DateTimeProvider;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.temporal.TemporalAccessor;
+import java.util.Optional;
+
+/**
+ * 등록/수정 시간용 시계 (TimestampListener, 스프링 auditing 공통)
+ * 트랜잭션 안에서는 처음 읽은 시각을 트랜잭션이 끝날 때까지 공유하므로
+ * 한 트랜잭션에서 저장/수정한 엔티티들은 모두 같은 시각을 갖고, 엔티티마다 시스템 시계를 읽지 않는다.
+ * perTransaction = false 면 호출할 때마다 시계를 읽는다.
+ * Clock을 주입받으므로 테스트에서는 Clock.fixed(...)로 바꿔서 시간을 고정할 수 있다.
+ */
+public class UnitOfWorkClock implements DateTimeProvider {
+
+    private final Clock clock;
+    private final boolean perTransaction;
+    private final TransactionScoped<LocalDateTime> now;
+
+    public UnitOfWorkClock(Clock clock, boolean perTransaction) {
+        this.clock = clock;
+        this.perTransaction = perTransaction;
+        this.now = new TransactionScoped<>(() -> LocalDateTime.now(clock));
+    }
+
+    public LocalDateTime now() {
+        return perTransaction ? now.get() : LocalDateTime.now(clock);
+    }
+
+    @Override
+    public Optional<TemporalAccessor> getNow() {
+        return Optional.of(now());
+    }
+
+    public Clock getClock() {
+        return clock;
+    }
+}
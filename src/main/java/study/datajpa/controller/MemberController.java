@@ -1,35 +1,71 @@
 package study.datajpa.controller;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.Builder;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import study.datajpa.dto.MemberDto;
 import study.datajpa.entity.Member;
 import study.datajpa.repository.MemberJpaRepository;
 import study.datajpa.repository.MemberRepository;
 import study.datajpa.repository.MemberRepositoryCustom;
+import study.datajpa.repository.support.CountMode;
+import study.datajpa.repository.support.KeysetWindow;
+import study.datajpa.repository.support.MemberCountCache;
 
 import javax.annotation.PostConstruct;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequiredArgsConstructor
 public class MemberController {
 
 
+    private static final int MAX_KEYSET_SIZE = 2000; // application.yml의 max-page-size와 맞춤
+
     private final MemberRepository memberRepository;
 
     private final MemberJpaRepository memberJpaRepository;
 
+    private final MemberCountCache memberCountCache;
+
+    private final ObjectMapper objectMapper;
+
     @GetMapping("/members/{id}")
     public String findMember(@PathVariable("id") Long id) {
         Member member = memberRepository.findById(id).get();
         return member.getUserName();
     }
 
+    /**
+     * 비동기 버전 : CompletableFuture를 반환하면 스프링 MVC가 서블릿 비동기로 처리
+     * 쿼리가 끝날 때까지 톰캣 스레드를 잡고 있지 않음 (조회는 repositoryExecutor 스레드에서)
+     * http://localhost:8080/async/members/1
+     */
+    @GetMapping("/async/members/{id}")
+    public CompletableFuture<String> findMemberAsync(@PathVariable("id") Long id) {
+        return memberRepository.findAsyncById(id)
+                .thenApply(member -> Optional.ofNullable(member).orElseThrow().getUserName());
+    }
+
     @PostMapping("/members0")
     public Member findMember3(@RequestBody Member member) {
         return member;
@@ -52,20 +88,124 @@ public class MemberController {
      * http://localhost:8080/members?page=3&size=3 으로 페이지, 사이즈 정할 수 있음
      * http://localhost:8080/members?page=3&size=3&sort=age,desc&sort=id,desc 이렇게도 가능(디폴트는 asc)
      * 파라미터를 받으면 PageRequest를 자동으로 생성하고 값을 채워서 동작하게 해줌
+     *
+     * count 파라미터로 totalCount 조회 방식 선택 가능 (대문자)
+     * http://localhost:8080/members?page=3&count=CACHED : 캐시된 count 사용 (Page)
+     * http://localhost:8080/members?page=3&count=PARALLEL : count 쿼리를 content 쿼리와 동시에 실행 (Page)
+     * http://localhost:8080/members?page=3&count=NONE : count 쿼리 없이 Slice로 반환 (totalCount, totalPages 없음)
      */
     @GetMapping("/members")
-    public Page<MemberDto> list(@PageableDefault(size=5) Pageable pageable) {
-        Page<Member> page = memberRepository.findAll(pageable);
+    public Slice<MemberDto> list(@PageableDefault(size=5) Pageable pageable,
+                                 @RequestParam(value = "count", defaultValue = "EXACT") CountMode count) {
+        Slice<Member> page;
+        switch (count) {
+            case NONE:
+                page = memberRepository.findSliceBy(pageable);
+                memberCountCache.recordAvoided();
+                break;
+            case CACHED:
+                page = memberRepository.findAllWithCachedCount(pageable);
+                break;
+            case PARALLEL:
+                page = memberRepository.findAllWithParallelCount(pageable);
+                break;
+            default:
+                page = memberRepository.findAll(pageable);
+        }
         return page.map(member -> new MemberDto(member));
         // 페이지 호출 시 디폴트값 글로벌 변경은 application.yml에서 pageable 설정 변경 가능
         // @PageableDefault로 특정 메서드에 디폴트값 설정도 가능
     }
 
+    /**
+     * /members와 같은 페이징이지만 엔티티를 조회하지 않고 id, userName, 팀 이름만 join 쿼리 한번으로 Dto에 바로 담아옴
+     * http://localhost:8080/members/dto?page=0&size=5&sort=userName,desc
+     */
+    @GetMapping("/members/dto")
+    public Page<MemberDto> dtoList(@PageableDefault(size=5) Pageable pageable) {
+        return memberRepository.findMemberDtoPage(pageable);
+    }
+
+    /**
+     * /members/dto의 비동기 버전
+     * http://localhost:8080/async/members?page=0&size=5
+     */
+    @GetMapping("/async/members")
+    public CompletableFuture<Page<MemberDto>> asyncList(@PageableDefault(size=5) Pageable pageable) {
+        return memberRepository.findMemberDtoPageAsync(pageable);
+    }
+
+    /**
+     * repositoryExecutor 큐가 가득 차면 요청을 쌓아두지 않고 바로 503
+     */
+    @ExceptionHandler(TaskRejectedException.class)
+    public ResponseEntity<String> rejected(TaskRejectedException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body("busy");
+    }
+
+    /**
+     * 키셋(커서) 페이징 버전
+     * http://localhost:8080/members/keyset?size=5 로 첫 페이지 호출 후,
+     * 응답의 nextCursor 값을 http://localhost:8080/members/keyset?size=5&cursor={nextCursor} 로 넘기면 다음 페이지
+     * page 번호 방식과 달리 뒤 페이지로 가도 조회 속도가 느려지지 않음 (대신 특정 페이지로 바로 이동은 불가)
+     */
+    @GetMapping("/members/keyset")
+    public KeysetWindow<MemberDto> keysetList(@RequestParam(value = "cursor", required = false) String cursor,
+                                              @RequestParam(value = "size", defaultValue = "5") int size) {
+        KeysetWindow<Member> window = memberRepository.findAllKeyset(cursor, Math.min(Math.max(size, 1), MAX_KEYSET_SIZE));
+        return window.map(member -> new MemberDto(member));
+    }
+
+    /**
+     * 회원 전체 내보내기 (한 줄에 회원 한명)
+     * http://localhost:8080/members/export : NDJSON
+     * http://localhost:8080/members/export?format=csv&fetchSize=1000 : CSV
+     * 전체를 List로 조회하지 않고 커서로 fetchSize 만큼씩 읽으면서 바로 응답에 써서 메모리 사용량이 회원 수와 상관없이 일정함
+     */
+    @GetMapping("/members/export")
+    public void export(@RequestParam(value = "format", defaultValue = "ndjson") String format,
+                       @RequestParam(value = "fetchSize", defaultValue = "500") int fetchSize,
+                       HttpServletResponse response) throws IOException {
+        boolean csv = "csv".equalsIgnoreCase(format);
+        response.setContentType(csv ? "text/csv" : "application/x-ndjson");
+        response.setCharacterEncoding("UTF-8");
+
+        PrintWriter writer = response.getWriter();
+        if (csv) {
+            writer.println("id,userName,age");
+        }
+        memberJpaRepository.scrollAll(Math.max(fetchSize, 1), member ->
+                writer.println(csv ? toCsvLine(member) : toJsonLine(member)));
+        writer.flush();
+    }
+
+    private String toCsvLine(Member member) {
+        String userName = member.getUserName() == null ? "" : member.getUserName();
+        if (userName.contains(",") || userName.contains("\"") || userName.contains("\n")) {
+            userName = "\"" + userName.replace("\"", "\"\"") + "\"";
+        }
+        return member.getId() + "," + userName + "," + member.getAge();
+    }
+
+    private String toJsonLine(Member member) {
+        Map<String, Object> line = new LinkedHashMap<>();
+        line.put("id", member.getId());
+        line.put("userName", member.getUserName());
+        line.put("age", member.getAge());
+        try {
+            return objectMapper.writeValueAsString(line);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
     @PostConstruct
     public void init() {
+        List<Member> members = new ArrayList<>();
         for (int i = 0; i < 100; i++) {
-            memberRepository.save(new Member("user" + i, i));
+            members.add(new Member("user" + i, i));
         }
+        memberRepository.saveAllInBatch(members); // 한건씩 save 하지 않고 JDBC 배치로 insert
     }
 
 }
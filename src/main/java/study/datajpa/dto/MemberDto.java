@@ -20,5 +20,8 @@ public class MemberDto {
     public MemberDto(Member member) {
         this.id = member.getId();
         this.name = member.getUserName();
+        if (member.getTeam() != null) {
+            this.teamName = member.getTeam().getName(); // 지연로딩 : 팀 프록시 초기화 (배치 페치로 in 쿼리)
+        }
     }
 }
@@ -1,26 +1,34 @@
 package study.datajpa.entity;
 
 import lombok.Getter;
-import org.springframework.data.annotation.CreatedBy;
-import org.springframework.data.annotation.CreatedDate;
-import org.springframework.data.annotation.LastModifiedBy;
-import org.springframework.data.annotation.LastModifiedDate;
-import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
 import javax.persistence.Column;
 import javax.persistence.EntityListeners;
 import javax.persistence.MappedSuperclass;
 import java.time.LocalDateTime;
 
+/**
+ * 등록/수정 시간은 JpaBaseEntity와 같은 TimestampListener로 채운다.
+ * (@CreatedDate, @LastModifiedDate를 쓰면 AuditingEntityListener가 따로 시계를 읽게 됨)
+ */
 @MappedSuperclass
 @Getter
-@EntityListeners(AuditingEntityListener.class)
-public class BaseTimeEntity {
+@EntityListeners(TimestampListener.class)
+public class BaseTimeEntity implements Timestamped {
 
-    @CreatedDate
     @Column(updatable = false)
     private LocalDateTime createdDate;
 
-    @LastModifiedDate
     private LocalDateTime lastModifiedDate;
+
+    @Override
+    public void onCreate(LocalDateTime now) {
+        this.createdDate = now;
+        this.lastModifiedDate = now;
+    }
+
+    @Override
+    public void onUpdate(LocalDateTime now) {
+        this.lastModifiedDate = now;
+    }
 }
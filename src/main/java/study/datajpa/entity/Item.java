@@ -7,8 +7,6 @@ import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.domain.Persistable;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
-import org.springframework.data.jpa.repository.EntityGraph;
-import study.datajpa.controller.MemberController;
 
 import javax.persistence.Entity;
 import javax.persistence.EntityListeners;
@@ -33,9 +31,14 @@ public class Item implements Persistable<String> {
 
     @Override
     public String getId() {
-        return null;
+        return id;
     }
 
+    /**
+     * 직접 할당한 id는 save() 시점에 이미 값이 있어서 기본 전략으로는 merge(select 후 insert)가 호출됨.
+     * @CreatedDate는 persist 시점에 채워지므로 값이 없으면 새로운 엔티티로 판단해서 select 없이 persist 한다.
+     * (DB에 이미 있는 id로 new Item(id)를 저장하면 중복키 예외 -> 존재 여부를 모를 때는 ItemRepository.ingest 사용)
+     */
     @Override
     public boolean isNew() {
         return this.createdDate == null;
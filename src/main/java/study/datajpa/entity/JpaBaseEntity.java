@@ -4,29 +4,28 @@ import lombok.Getter;
 import lombok.Setter;
 
 import javax.persistence.Column;
+import javax.persistence.EntityListeners;
 import javax.persistence.MappedSuperclass;
-import javax.persistence.PrePersist;
-import javax.persistence.PreUpdate;
 import java.time.LocalDateTime;
 
 @MappedSuperclass // 테이블은 상속관계가 아니고 객체만 상속관계
 @Getter
 @Setter
-public class JpaBaseEntity {
+@EntityListeners(TimestampListener.class) // persist 전(@PrePersist), update 전(@PreUpdate)에 시간을 채워줌
+public class JpaBaseEntity implements Timestamped {
 
     @Column(updatable = false)
     private LocalDateTime createdDate;
     private LocalDateTime updatedDate;
 
-    @PrePersist // jpa에 persist 하기 전에 이벤트 발생
-    public void prePersist() {
-        LocalDateTime now = LocalDateTime.now();
+    @Override
+    public void onCreate(LocalDateTime now) {
         this.createdDate = now;
         this.updatedDate = now;
     }
 
-    @PreUpdate
-    public void preUpdate() {
-        this.updatedDate = LocalDateTime.now();
+    @Override
+    public void onUpdate(LocalDateTime now) {
+        this.updatedDate = now;
     }
 }
@@ -1,13 +1,22 @@
 package study.datajpa.entity;
 
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import study.datajpa.repository.support.MemberCountListener;
+import study.datajpa.repository.support.UserNameFilterListener;
 
 import javax.persistence.*;
 
 import static javax.persistence.FetchType.*;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE) // 2차 캐시 (region = 클래스 전체 이름)
 @Getter
 @Setter
 @NamedQuery(
@@ -15,12 +24,38 @@ import static javax.persistence.FetchType.*;
         query="select m from Member m where m.userName = :userName"
 )
 @NamedEntityGraph(name = "Member.all", attributeNodes = @NamedAttributeNode("team"))
+@Table(indexes = { // 실제로 어떤 인덱스를 타는지는 QueryPlanAnalyzer (EXPLAIN) 로 확인
+        // 키셋 페이징(userName desc, id desc)에서 정렬 없이 시작 위치를 바로 찾기 위한 인덱스
+        @Index(name = "idx_member_age_user_name_id", columnList = "age, userName, id"),
+        @Index(name = "idx_member_user_name_id", columnList = "userName, id"),
+        // userName = ? and age > ? (findByUserNameAndAgeGreaterThan), userName = ? and age = ? (findUser)
+        @Index(name = "idx_member_user_name_age", columnList = "userName, age"),
+        // join m.team t (findMemberDto), 팀별 회원 조회
+        @Index(name = "idx_member_team_id", columnList = "team_id")
+})
+@EntityListeners({MemberCountListener.class, UserNameFilterListener.class}) // 회원 수가 바뀌면 페이지 count 캐시 무효화, 이름 블룸 필터 갱신
 public class Member extends BaseEntity{
 
     @Id
-    @GeneratedValue
+    @GeneratedValue(generator = "member_seq_generator") // 기본 hibernate_sequence를 모든 엔티티가 같이 쓰지 않도록 엔티티별 시퀀스 사용
+    @GenericGenerator(
+            name = "member_seq_generator",
+            strategy = "study.datajpa.entity.PooledSequenceGenerator",
+            parameters = {
+                    @Parameter(name = "sequence_name", value = "member_seq"),
+                    @Parameter(name = "increment_size", value = "50"),
+                    @Parameter(name = "optimizer", value = "pooled-lo")
+            })
     private Long id;
 
+    /**
+     * 낙관적 락 : 수정할 때 update ... where id = ? and version = ? 로 조회 시점의 버전인지 확인하고 버전을 올림
+     * 그 사이 다른 트랜잭션이 먼저 수정했으면 수정된 행이 0건 -> ObjectOptimisticLockingFailureException (OptimisticRetryExecutor로 재시도)
+     */
+    @Version
+    @Setter(AccessLevel.NONE)
+    private Long version;
+
     private String userName;
     private int age;
 
@@ -1,25 +1,51 @@
 package study.datajpa.entity;
 
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
 
+import javax.persistence.Cacheable;
 import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.Id;
 import javax.persistence.OneToMany;
+import javax.persistence.Version;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE) // 2차 캐시 (region = 클래스 전체 이름)
 @Getter
 @Setter
+@BatchSize(size = 100) // Member.team 프록시를 초기화할 때 다른 팀 프록시들도 in (...) 으로 한번에 조회
 public class Team extends JpaBaseEntity{
 
     @Id
-    @GeneratedValue
+    @GeneratedValue(generator = "team_seq_generator") // 기본 hibernate_sequence를 모든 엔티티가 같이 쓰지 않도록 엔티티별 시퀀스 사용
+    @GenericGenerator(
+            name = "team_seq_generator",
+            strategy = "study.datajpa.entity.PooledSequenceGenerator",
+            parameters = {
+                    @Parameter(name = "sequence_name", value = "team_seq"),
+                    @Parameter(name = "increment_size", value = "50"),
+                    @Parameter(name = "optimizer", value = "pooled-lo")
+            })
     private Long id;
+
+    @Version // 낙관적 락 (Member 참고)
+    @Setter(AccessLevel.NONE)
+    private Long version;
+
     private String name;
 
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+    @BatchSize(size = 100) // 여러 팀의 member 컬렉션을 in (...) 으로 한번에 조회 (N+1 방지)
     @OneToMany(mappedBy = "team")
     private List<Member> member = new ArrayList<>();
 
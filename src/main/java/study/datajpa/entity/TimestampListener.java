@@ -0,0 +1,30 @@
+package study.datajpa.entity;
+
+import study.datajpa.config.UnitOfWorkClock;
+
+import javax.persistence.PrePersist;
+import javax.persistence.PreUpdate;
+
+/**
+ * JpaBaseEntity, BaseTimeEntity 공통 등록/수정 시간 리스너
+ * UnitOfWorkClock에서 시각을 가져오므로 한 트랜잭션(flush)의 엔티티들은 모두 같은 시각을 갖는다.
+ * SpringBeanContainer 덕분에 생성자 주입 가능 (MemberCountListener 참고)
+ */
+public class TimestampListener {
+
+    private final UnitOfWorkClock clock;
+
+    public TimestampListener(UnitOfWorkClock clock) {
+        this.clock = clock;
+    }
+
+    @PrePersist
+    public void prePersist(Object entity) {
+        ((Timestamped) entity).onCreate(clock.now());
+    }
+
+    @PreUpdate
+    public void preUpdate(Object entity) {
+        ((Timestamped) entity).onUpdate(clock.now());
+    }
+}
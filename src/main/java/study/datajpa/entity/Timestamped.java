@@ -0,0 +1,14 @@
+package study.datajpa.entity;
+
+import java.time.LocalDateTime;
+
+/**
+ * TimestampListener가 등록/수정 시간을 채워주는 엔티티
+ * 리플렉션 없이 인터페이스 메서드로 바로 값을 넣는다.
+ */
+public interface Timestamped {
+
+    void onCreate(LocalDateTime now);
+
+    void onUpdate(LocalDateTime now);
+}
@@ -0,0 +1,16 @@
+package study.datajpa.repository;
+
+import study.datajpa.entity.Item;
+import study.datajpa.repository.support.BulkWriteResult;
+
+import java.util.Collection;
+
+public interface ItemRepositoryCustom {
+
+    /**
+     * 직접 할당한 id를 가진 Item 대량 저장 (이미 있는 id는 건너뜀)
+     * 한건씩 save 하면 존재 여부를 모르는 경우 merge로 건마다 select가 나가므로,
+     * batch_size 단위로 id를 in 쿼리 한번에 조회해서 없는 것만 JDBC 배치로 insert 한다.
+     */
+    BulkWriteResult ingest(Collection<Item> items);
+}
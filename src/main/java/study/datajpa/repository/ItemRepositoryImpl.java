@@ -0,0 +1,73 @@
+package study.datajpa.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.orm.jpa.JpaProperties;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.entity.Item;
+import study.datajpa.repository.support.BulkWriteResult;
+import study.datajpa.repository.support.JdbcStatementStats;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@RequiredArgsConstructor
+public class ItemRepositoryImpl implements ItemRepositoryCustom {
+
+    private final EntityManager em;
+    private final JdbcStatementStats jdbcStatementStats;
+    private final JpaProperties jpaProperties;
+
+    @Override
+    @Transactional
+    public BulkWriteResult ingest(Collection<Item> items) {
+        int batchSize = Integer.parseInt(jpaProperties.getProperties().getOrDefault("hibernate.jdbc.batch_size", "100"));
+        long batchesBefore = jdbcStatementStats.batches();
+        long rowsBefore = jdbcStatementStats.rows();
+
+        Set<String> seen = new HashSet<>(); // 요청 안에서 같은 id가 중복된 경우 첫번째 것만 저장
+        int inserted = 0;
+        List<Item> chunk = new ArrayList<>(batchSize);
+        for (Item item : items) {
+            if (!seen.add(item.getId())) {
+                continue;
+            }
+            chunk.add(item);
+            if (chunk.size() == batchSize) {
+                inserted += insertAbsent(chunk);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            inserted += insertAbsent(chunk);
+        }
+
+        return new BulkWriteResult(inserted, 0, items.size() - inserted,
+                jdbcStatementStats.batches() - batchesBefore, jdbcStatementStats.rows() - rowsBefore);
+    }
+
+    /**
+     * chunk의 id 중 이미 DB에 있는 것을 한번에 조회하고, 없는 것만 persist (isNew가 true라서 select 없이 insert)
+     */
+    private int insertAbsent(List<Item> chunk) {
+        List<String> ids = chunk.stream().map(Item::getId).collect(Collectors.toList());
+        Set<String> existing = new HashSet<>(em.createQuery("select i.id from Item i where i.id in :ids", String.class)
+                .setParameter("ids", ids)
+                .getResultList());
+
+        int inserted = 0;
+        for (Item item : chunk) {
+            if (!existing.contains(item.getId())) {
+                em.persist(item);
+                inserted++;
+            }
+        }
+        em.flush(); // 모아둔 insert를 JDBC 배치로 실행
+        em.clear();
+        return inserted;
+    }
+}
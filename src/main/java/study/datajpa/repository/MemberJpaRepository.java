@@ -1,15 +1,23 @@
 package study.datajpa.repository;
 
+import org.hibernate.CacheMode;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 import study.datajpa.entity.Member;
+import study.datajpa.repository.support.KeysetWindow;
+import study.datajpa.repository.support.MemberKeysetQuery;
 
 import javax.persistence.EntityManager;
 import javax.persistence.PersistenceContext;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 @Repository
+@Transactional(readOnly = true) // 기본은 읽기 전용 (스냅샷 X, flush X), 변경 메서드만 @Transactional
 public class MemberJpaRepository {
 
     @PersistenceContext
@@ -22,6 +30,7 @@ public class MemberJpaRepository {
         return member;
     }
 
+    @Transactional
     public void delete(Member member) {
         em.remove(member);
     }
@@ -31,6 +40,56 @@ public class MemberJpaRepository {
                 .getResultList();
     }
 
+    /**
+     * findAll()은 전체 회원을 List로 한번에 메모리에 올리기 때문에 회원이 많으면 OOM 발생
+     * 전방향 커서(ScrollMode.FORWARD_ONLY)로 fetchSize 만큼씩 DB에서 가져오면서 한건씩 consumer에 넘기고,
+     * fetchSize 건마다 영속성 컨텍스트를 비워서 메모리에는 fetchSize 만큼만 남게 한다.
+     * 읽기 전용으로 조회하므로 스냅샷도 만들지 않음. 넘겨받은 엔티티는 consumer 안에서만 사용해야 함 (이후엔 준영속)
+     * 반환값은 처리한 회원 수
+     */
+    public long scrollAll(int fetchSize, Consumer<Member> consumer) {
+        ScrollableResults results = em.unwrap(Session.class)
+                .createQuery("select m from Member m order by m.id", Member.class)
+                .setFetchSize(fetchSize)
+                .setReadOnly(true)
+                .setCacheMode(CacheMode.IGNORE)
+                .scroll(ScrollMode.FORWARD_ONLY);
+        long count = 0;
+        try {
+            while (results.next()) {
+                consumer.accept((Member) results.get(0));
+                if (++count % fetchSize == 0) {
+                    em.clear();
+                }
+            }
+        } finally {
+            results.close();
+        }
+        em.clear();
+        return count;
+    }
+
+    /**
+     * 회원 이름만 전방향 커서로 fetchSize 만큼씩 읽어서 consumer에 넘김 (엔티티를 만들지 않으므로 영속성 컨텍스트도 사용 안함)
+     * UserNameFilterLoader가 블룸 필터를 만들 때 사용, 반환값은 읽은 이름 수
+     */
+    public long scrollUserNames(int fetchSize, Consumer<String> consumer) {
+        ScrollableResults results = em.unwrap(Session.class)
+                .createQuery("select m.userName from Member m where m.userName is not null", String.class)
+                .setFetchSize(fetchSize)
+                .scroll(ScrollMode.FORWARD_ONLY);
+        long count = 0;
+        try {
+            while (results.next()) {
+                consumer.accept((String) results.get(0));
+                count++;
+            }
+        } finally {
+            results.close();
+        }
+        return count;
+    }
+
     public Optional<Member> findById(Long id) {
         Member member = em.find(Member.class, id);
         return Optional.ofNullable(member); // member가 Null 일수도 있음을 알려주면서 Optional로 반환
@@ -61,14 +120,25 @@ public class MemberJpaRepository {
                 .getResultList();
     }
 
+    /**
+     * 키셋(seek) 페이징 : offset 대신 직전 페이지 마지막 행의 (userName, id) 이후부터 조회
+     * offset 방식은 앞 페이지 행들을 전부 읽고 버리기 때문에 뒤 페이지로 갈수록 느려지지만,
+     * 키셋 방식은 where 조건으로 시작 위치를 바로 찾으므로 몇번째 페이지든 비용이 같다.
+     * cursor가 null이면 첫 페이지
+     */
+    public KeysetWindow<Member> findByPageKeyset(int age, String cursor, int limit) {
+        return MemberKeysetQuery.find(em, age, cursor, limit);
+    }
+
     public long totalCount(int age) {
         return em.createQuery("select count(m) from Member m where m.age = :age", Long.class)
                 .setParameter("age", age)
                 .getSingleResult();
     }
 
+    @Transactional
     public int bulkAgePlus(int age) {
-        return em.createQuery("update Member m set m.age = m.age + 1 where m.age >= :age")
+        return em.createQuery("update versioned Member m set m.age = m.age + 1 where m.age >= :age") // versioned : @Version 값도 올림
                 .setParameter("age", age)
                 .executeUpdate(); // 응답값의 개수가 리턴됨
     }
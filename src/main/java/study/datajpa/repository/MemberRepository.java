@@ -3,17 +3,30 @@ package study.datajpa.repository;
 import org.hibernate.boot.model.source.spi.AttributePath;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.*;
 import org.springframework.data.repository.query.Param;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.config.AsyncRepositoryConfig;
 import study.datajpa.dto.MemberDto;
 import study.datajpa.entity.Member;
 
 import javax.persistence.LockModeType;
 import javax.persistence.QueryHint;
-import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
-
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
+
+/**
+ * 조회가 대부분이므로 기본을 읽기 전용 트랜잭션으로 (변경 메서드만 @Transactional로 덮어씀)
+ * 읽기 전용이면 스프링이 하이버네이트 세션을 FlushMode.MANUAL + readOnly로 설정해서
+ * 조회한 엔티티의 스냅샷을 만들지 않고(변경감지 X), 쿼리 전 flush도 하지 않으며, JDBC 커넥션도 readOnly로 설정한다.
+ * (이미 진행 중인 쓰기 트랜잭션에 참여하면 그 트랜잭션 설정을 따름)
+ * CrudRepository 기본 메서드(save, delete 등)는 SimpleJpaRepository에 선언된 트랜잭션 설정을 그대로 사용
+ */
+@Transactional(readOnly = true)
 public interface MemberRepository extends JpaRepository<Member, Long>, MemberRepositoryCustom { // 엔티티 객체, PK타입
 
     /**
@@ -31,6 +44,10 @@ public interface MemberRepository extends JpaRepository<Member, Long>, MemberRep
     @Query(name = "Member.findByUsername")
         // Member에 선언한 NamedQuery / 생략 가능
         // 메서드 명을 갖고 먼저 Member에서 네임드쿼리를 찾음. 만약, 네임드쿼리가 없다면 메서드이름으로 쿼리를 생성함 (find...By 와 같은)
+    @QueryHints(value = { // 쿼리 캐시 : 같은 파라미터면 결과 id 목록을 캐시에서 꺼내고, 엔티티는 2차 캐시에서 조회
+            @QueryHint(name = "org.hibernate.cacheable", value = "true"),
+            @QueryHint(name = "org.hibernate.cacheRegion", value = "member-query")
+    })
     List<Member> findByUserName(@Param("userName") String userName);
 
     // 이름이 없는 네임드쿼리. 문법 오류가 있다면 어플 동작 시점에 파싱해서 에러 발생
@@ -46,9 +63,33 @@ public interface MemberRepository extends JpaRepository<Member, Long>, MemberRep
     @Query("select new study.datajpa.dto.MemberDto(m.id, m.userName, t.name) from Member m join m.team t")
     List<MemberDto> findMemberDto();
 
-    @Query("select m from Member m where m.userName in :names")
-        // names 안에 있는 이름과 동일한 name을 갖는 Member를 List로 뽑음
-    List<Member> findByNames(@Param("names") Collection<String> names);
+    /**
+     * Dto 페이징 : 엔티티를 조회해서 Dto로 변환하지 않고 필요한 컬럼만 바로 Dto로 조회
+     * 엔티티가 아니므로 영속성 컨텍스트에 올라가지 않음 (스냅샷, 변경감지 없음)
+     * 팀이 없는 회원도 나와야 하므로 left join
+     */
+    @Query(value = "select new study.datajpa.dto.MemberDto(m.id, m.userName, t.name) from Member m left join m.team t",
+            countQuery = "select count(m) from Member m")
+    Page<MemberDto> findMemberDtoPage(Pageable pageable);
+
+    /**
+     * 비동기 조회 : 호출 즉시 CompletableFuture를 반환하고 쿼리는 repositoryExecutor 스레드에서 실행 (AsyncRepositoryConfig)
+     * 트랜잭션도 그 스레드에서 열리므로 반환된 엔티티는 준영속 상태 (지연로딩 X)
+     * 없으면 null
+     */
+    @Async(AsyncRepositoryConfig.REPOSITORY_EXECUTOR)
+    CompletableFuture<Member> findAsyncById(Long id);
+
+    /**
+     * findMemberDtoPage의 비동기 버전
+     * 다른 스레드에서 실행되어 지연로딩을 할 수 없으므로 엔티티 대신 Dto로 조회
+     */
+    @Async(AsyncRepositoryConfig.REPOSITORY_EXECUTOR)
+    @Query(value = "select new study.datajpa.dto.MemberDto(m.id, m.userName, t.name) from Member m left join m.team t",
+            countQuery = "select count(m) from Member m")
+    CompletableFuture<Page<MemberDto>> findMemberDtoPageAsync(Pageable pageable);
+
+    // findByNames(Collection<String>) : in 목록을 청크로 나눠서 조회 -> MemberRepositoryCustom
 
     // 컬렉션 : 엔티티를 컬렉션으로 꺼내올 때는 매개변수와 일치하는 엔티티가 없어도 null이 아니라 빈 값으로 가져와짐.
     // 따라서 List로 가져올 때는 != null을 사용하면 안됨!! (always true)
@@ -57,6 +98,10 @@ public interface MemberRepository extends JpaRepository<Member, Long>, MemberRep
     // 단건 : 단건 조회에서는 매개변수와 일치하는 엔티티가 없을 시 null. (null 예외는 발생 X, 값이 null로 나옴)
     Member findMemberByUserName(String userName);
 
+    @QueryHints(value = { // 쿼리 캐시 (findByUserName과 같은 region), 동시에 같은 이름을 조회하면 SingleFlightAspect가 캐시로 돌려줌
+            @QueryHint(name = "org.hibernate.cacheable", value = "true"),
+            @QueryHint(name = "org.hibernate.cacheRegion", value = "member-query")
+    })
     Optional<Member> findOptionalByUserName(String userName); // 단건 Optional
 
     /**
@@ -64,13 +109,20 @@ public interface MemberRepository extends JpaRepository<Member, Long>, MemberRep
      * 그런데 join을 통해 가져오는 쿼리를 작성했을 시 count쿼리가 기본적으로 left join으로 동작하기 때문에 쿼리가 복잡해지면 성능이 굉장히 나빠질 수 있음
      * 그래서 countQuery를 따로 작성해줘야함. 그러면 join 없이 단순한 count를 조회하기때문에 성능에 좋음
      */
-    @Query(value = "select m from Member m left join m.team t", // @Query 생략 가능 -> 단순하게 페이징 함
-            countQuery = "select count(m) from Member m")
-    Page<Member> findByAge(int age, Pageable pageable);
+    @Query(value = "select m from Member m left join m.team t where m.age = :age", // @Query 생략 가능 -> 단순하게 페이징 함
+            countQuery = "select count(m) from Member m where m.age = :age")
+    Page<Member> findByAge(@Param("age") int age, Pageable pageable); // findByAgeWithParallelCount와 같은 결과
+
+    /**
+     * count 쿼리 없이 조회 (limit + 1 로 다음 페이지 여부만 확인)
+     * GET /members?count=NONE 에서 사용
+     */
+    Slice<Member> findSliceBy(Pageable pageable);
 
+    @Transactional
     @Modifying(clearAutomatically = true)
     // 어노테이션이 필수임, clearAutomatically를 사용하면 일일이 flush, clear를 안해줘도 됨
-    @Query("update Member m set m.age = m.age + 1 where m.age >= :age")
+    @Query("update versioned Member m set m.age = m.age + 1 where m.age >= :age") // versioned : 벌크 수정도 @Version 값을 올려서 낙관적 락과 충돌 감지
         // 벌크성 수정 쿼리
     int bulkAgePlus(@Param("age") int age);
 
@@ -97,6 +149,32 @@ public interface MemberRepository extends JpaRepository<Member, Long>, MemberRep
     @QueryHints(value = @QueryHint(name = "org.hibernate.readOnly", value = "true"))
     Member findReadOnlyByUserName(String userName);
 
+    /**
+     * 반환 타입을 Stream으로 하면 결과를 List로 한번에 담지 않고 커서로 fetchSize 만큼씩 가져옴
+     * ★주의: 트랜잭션 안에서 호출해야 하고, 사용 후 반드시 close (try-with-resources)
+     * 꺼낸 엔티티는 영속성 컨텍스트에 계속 쌓이므로 사용한 엔티티는 em.detach 하거나 주기적으로 em.clear 해야 메모리가 일정하게 유지됨
+     */
+    @QueryHints(value = {
+            @QueryHint(name = "org.hibernate.fetchSize", value = "500"),
+            @QueryHint(name = "org.hibernate.readOnly", value = "true")
+    })
+    @Query("select m from Member m order by m.id")
+    Stream<Member> streamAll();
+
+    /**
+     * 비관적 락 : select ... for update 로 조회한 행을 트랜잭션이 끝날 때까지 잠금
+     * 같은 회원을 수정하려는 다른 트랜잭션은 락이 풀릴 때까지 기다림 (경합이 많으면 처리량이 떨어짐)
+     * 락은 쓰기 트랜잭션에서 primary에 걸어야 하므로 인터페이스의 readOnly를 덮어씀 (readOnly면 replica로 라우팅되고, DB에 따라 거부됨)
+     */
+    @Transactional
     @Lock(LockModeType.PESSIMISTIC_READ)
     List<Member> findLockByUserName(String userName);
+
+    /**
+     * 낙관적 락 : 락 없이 조회하고 커밋 시점에 @Version으로 충돌 확인
+     * 수정하지 않은 엔티티도 커밋 전에 버전이 그대로인지 확인함 (OPTIMISTIC)
+     * 충돌하면 ObjectOptimisticLockingFailureException -> OptimisticRetryExecutor로 재시도
+     */
+    @Lock(LockModeType.OPTIMISTIC)
+    List<Member> findOptimisticLockByUserName(String userName);
 }
@@ -1,11 +1,56 @@
 package study.datajpa.repository;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.EntityGraph;
 import study.datajpa.entity.Member;
+import study.datajpa.repository.support.BulkWriteResult;
+import study.datajpa.repository.support.KeysetWindow;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface MemberRepositoryCustom {
 
     List<Member> findMemberCustom();
+
+    /**
+     * names 안에 있는 이름과 동일한 name을 갖는 Member를 List로 뽑음
+     * 이름이 많으면 in 목록을 datajpa.in-list.chunk-size 개씩 나눠서 조회하고 합쳐서 반환 (InListQueryExecutor)
+     */
+    List<Member> findByNames(Collection<String> names);
+
+    /**
+     * findByAge(int, Pageable)의 키셋 페이징 버전 (userName desc, id desc 정렬, count 쿼리 없음)
+     * cursor는 이전 결과의 nextCursor, 첫 페이지는 null
+     */
+    KeysetWindow<Member> findByAgeKeyset(int age, String cursor, int size);
+
+    /**
+     * 전체 회원 키셋 페이징 (MemberController.list 용)
+     */
+    KeysetWindow<Member> findAllKeyset(String cursor, int size);
+
+    /**
+     * findAll(Pageable)과 같지만 totalCount를 MemberCountCache에서 가져옴 (TTL 동안 count 쿼리 생략)
+     */
+    Page<Member> findAllWithCachedCount(Pageable pageable);
+
+    /**
+     * findAll(Pageable)과 같지만 content 쿼리와 count 쿼리를 서로 다른 커넥션에서 동시에 실행 (ParallelCountExecutor)
+     */
+    Page<Member> findAllWithParallelCount(Pageable pageable);
+
+    /**
+     * findByAge(int, Pageable)과 같은 결과 (나이가 age인 회원 페이지), content 쿼리와 count 쿼리를 동시에 실행 (ParallelCountExecutor)
+     */
+    Page<Member> findByAgeWithParallelCount(int age, Pageable pageable);
+
+    /**
+     * 대량 저장용 (saveAll은 엔티티마다 isNew 판단 후 persist/merge 하고, 영속성 컨텍스트에 계속 쌓아둠)
+     * id가 없으면 insert, 있으면 update 로 모아서 JDBC 배치로 실행하고,
+     * hibernate.jdbc.batch_size 건마다 flush, clear 해서 메모리 사용량을 일정하게 유지한다.
+     * clear 하기 때문에 넘긴 엔티티들은 준영속 상태가 된다.
+     */
+    BulkWriteResult saveAllInBatch(Iterable<Member> members);
 }
@@ -1,19 +1,42 @@
 package study.datajpa.repository;
 
 import lombok.RequiredArgsConstructor;
+import org.hibernate.Session;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.orm.jpa.JpaProperties;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.transaction.annotation.Transactional;
 import study.datajpa.entity.Member;
+import study.datajpa.repository.support.BulkWriteResult;
+import study.datajpa.repository.support.InListQueryExecutor;
+import study.datajpa.repository.support.JdbcStatementStats;
+import study.datajpa.repository.support.KeysetWindow;
+import study.datajpa.repository.support.MemberCountCache;
+import study.datajpa.repository.support.MemberKeysetQuery;
+import study.datajpa.repository.support.ParallelCountExecutor;
 
 import javax.persistence.EntityManager;
 import javax.persistence.PersistenceContext;
+import javax.persistence.TypedQuery;
+import java.util.Collection;
 import java.util.List;
+import java.util.function.Consumer;
 
 @RequiredArgsConstructor
+@Transactional(readOnly = true)
 public class MemberRepositoryImpl implements MemberRepositoryCustom{
 
 //    @PersistenceContext / @RequiredArgsConstructor 사용해서 생략 가능함
     private final EntityManager em;
+    private final MemberCountCache memberCountCache;
+    private final JdbcStatementStats jdbcStatementStats;
+    private final JpaProperties jpaProperties;
+    private final InListQueryExecutor inListQueryExecutor;
+    private final ParallelCountExecutor parallelCountExecutor;
 
     @Override
     public List<Member> findMemberCustom() {
@@ -22,5 +45,99 @@ public class MemberRepositoryImpl implements MemberRepositoryCustom{
                 .getResultList();
     }
 
+    @Override
+    public List<Member> findByNames(Collection<String> names) {
+        return inListQueryExecutor.query(names, chunk ->
+                em.createQuery("select m from Member m where m.userName in :names", Member.class)
+                        .setParameter("names", chunk)
+                        // 쿼리 캐시 : 같은 파라미터면 결과 id 목록을 캐시에서 꺼내고, 엔티티는 2차 캐시에서 조회
+                        .setHint("org.hibernate.cacheable", true)
+                        .setHint("org.hibernate.cacheRegion", "member-query")
+                        .getResultList());
+    }
+
+    @Override
+    public KeysetWindow<Member> findByAgeKeyset(int age, String cursor, int size) {
+        return MemberKeysetQuery.find(em, age, cursor, size);
+    }
+
+    @Override
+    public KeysetWindow<Member> findAllKeyset(String cursor, int size) {
+        return MemberKeysetQuery.find(em, null, cursor, size);
+    }
+
+    @Override
+    public Page<Member> findAllWithCachedCount(Pageable pageable) {
+        List<Member> content = findContent("select m from Member m", pageable, query -> {});
+
+        // 첫 페이지인데 content가 페이지 크기보다 작은 경우 등은 count 쿼리 자체가 필요 없으므로 supplier가 호출되지 않음
+        return PageableExecutionUtils.getPage(content, pageable, () ->
+                memberCountCache.get("Member.count", () ->
+                        em.createQuery("select count(m) from Member m", Long.class).getSingleResult()));
+    }
+
+    @Override
+    public Page<Member> findAllWithParallelCount(Pageable pageable) {
+        return parallelCountExecutor.page(pageable,
+                () -> findContent("select m from Member m", pageable, query -> {}),
+                () -> em.createQuery("select count(m) from Member m", Long.class).getSingleResult());
+    }
+
+    @Override
+    public Page<Member> findByAgeWithParallelCount(int age, Pageable pageable) {
+        return parallelCountExecutor.page(pageable,
+                () -> findContent("select m from Member m left join m.team t where m.age = :age", pageable,
+                        query -> query.setParameter("age", age)),
+                () -> em.createQuery("select count(m) from Member m where m.age = :age", Long.class)
+                        .setParameter("age", age)
+                        .getSingleResult());
+    }
+
+    @Override
+    @Transactional
+    public BulkWriteResult saveAllInBatch(Iterable<Member> members) {
+        int batchSize = Integer.parseInt(jpaProperties.getProperties().getOrDefault("hibernate.jdbc.batch_size", "100"));
+        long batchesBefore = jdbcStatementStats.batches();
+        long rowsBefore = jdbcStatementStats.rows();
+        Session session = em.unwrap(Session.class);
+
+        int inserted = 0;
+        int updated = 0;
+        for (Member member : members) {
+            if (member.getId() == null) {
+                em.persist(member); // 등록 시간, 등록자 등은 persist 시점에 채워짐
+                inserted++;
+            } else {
+                // merge는 select 후 값을 복사하지만, update는 select 없이 바로 영속 상태로 만들고 flush 때 update 실행
+                // 수정 시간 등은 flush 시점 @PreUpdate 에서 채워짐 (createdDate는 updatable = false)
+                if (!em.contains(member)) {
+                    session.update(member);
+                }
+                updated++;
+            }
+            if ((inserted + updated) % batchSize == 0) {
+                em.flush(); // 모아둔 insert/update를 배치로 실행 (order_inserts, order_updates로 같은 sql끼리 묶임)
+                em.clear();
+            }
+        }
+        em.flush();
+        em.clear();
+
+        return new BulkWriteResult(inserted, updated, 0,
+                jdbcStatementStats.batches() - batchesBefore, jdbcStatementStats.rows() - rowsBefore);
+    }
+
+    /**
+     * pageable의 정렬, offset, limit을 적용해서 조회
+     */
+    private List<Member> findContent(String jpql, Pageable pageable, Consumer<TypedQuery<Member>> parameters) {
+        TypedQuery<Member> query = em.createQuery(QueryUtils.applySorting(jpql, pageable.getSort(), "m"), Member.class);
+        parameters.accept(query);
+        if (pageable.isPaged()) {
+            query.setFirstResult((int) pageable.getOffset())
+                    .setMaxResults(pageable.getPageSize());
+        }
+        return query.getResultList();
+    }
 
 }
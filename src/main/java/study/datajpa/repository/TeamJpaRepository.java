@@ -1,6 +1,7 @@
 package study.datajpa.repository;
 
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import study.datajpa.entity.Team;
 
 import javax.persistence.EntityManager;
@@ -13,16 +14,19 @@ import java.util.Optional;
  * : 동일 트랜잭션 안에서 엔티티매니저로 값을 조회한 다음 엔티티 값만 변경하면 변경 감지로 값이 변경됨
  */
 @Repository
+@Transactional(readOnly = true) // 기본은 읽기 전용 (스냅샷 X, flush X), 변경 메서드만 @Transactional
 public class TeamJpaRepository {
 
     @PersistenceContext
     private EntityManager em;
 
+    @Transactional
     public Team save(Team team) {
         em.persist(team);
         return team;
     }
 
+    @Transactional
     public void delete(Team team) {
         em.remove(team);
     }
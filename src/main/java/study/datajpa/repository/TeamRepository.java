@@ -1,8 +1,10 @@
 package study.datajpa.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.transaction.annotation.Transactional;
 
 import study.datajpa.entity.Team;
 
+@Transactional(readOnly = true) // 조회 메서드를 추가하면 읽기 전용 트랜잭션으로 동작 (save 등은 SimpleJpaRepository 설정 사용)
 public interface TeamRepository extends JpaRepository<Team, Long> {
 }
@@ -0,0 +1,28 @@
+package study.datajpa.repository.support;
+
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * 배치 저장 결과
+ * inserted/updated : 요청한 엔티티 수, skipped : 이미 있어서 저장하지 않은 엔티티 수
+ * batches/batchedRows : 실제로 실행된 JDBC 배치 수와 반영된 행 수
+ */
+@Getter
+@ToString
+public class BulkWriteResult {
+
+    private final int inserted;
+    private final int updated;
+    private final int skipped;
+    private final long batches;
+    private final long batchedRows;
+
+    public BulkWriteResult(int inserted, int updated, int skipped, long batches, long batchedRows) {
+        this.inserted = inserted;
+        this.updated = updated;
+        this.skipped = skipped;
+        this.batches = batches;
+        this.batchedRows = batchedRows;
+    }
+}
@@ -0,0 +1,105 @@
+package study.datajpa.repository.support;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * bulkAgePlus를 id 구간(chunk) 단위로 나눠서 실행
+ * update ... where m.age >= :age 한번으로 처리하면 대상 행 전체에 락이 걸린 채로 긴 트랜잭션이 되므로,
+ * id 구간마다 별도 트랜잭션으로 커밋해서 락 범위와 유지 시간을 줄인다.
+ * 실패하면 ChunkedUpdateException에 마지막으로 커밋된 id가 담겨 있고, 그 id부터 다시 실행하면 이어서 처리된다.
+ *
+ * 메트릭 : member.bulk.update.rows, member.bulk.update.chunks, member.bulk.update.last.id (진행 위치)
+ */
+@Slf4j
+@Component
+public class ChunkedAgeUpdater {
+
+    @PersistenceContext
+    private EntityManager em;
+
+    private final TransactionTemplate chunkTx;
+    private final int defaultChunkSize;
+
+    private final Counter updatedRows;
+    private final Counter committedChunks;
+    private final AtomicLong lastProcessedId;
+
+    public ChunkedAgeUpdater(PlatformTransactionManager transactionManager,
+                             @Value("${datajpa.bulk-update.chunk-size:1000}") int defaultChunkSize,
+                             MeterRegistry meterRegistry) {
+        this.chunkTx = new TransactionTemplate(transactionManager);
+        this.chunkTx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW); // 청크마다 바로 커밋
+        this.defaultChunkSize = defaultChunkSize;
+        this.updatedRows = Counter.builder("member.bulk.update.rows").register(meterRegistry);
+        this.committedChunks = Counter.builder("member.bulk.update.chunks").register(meterRegistry);
+        this.lastProcessedId = meterRegistry.gauge("member.bulk.update.last.id", new AtomicLong());
+    }
+
+    public ChunkedUpdateResult bulkAgePlus(int age) {
+        return bulkAgePlus(age, null, defaultChunkSize);
+    }
+
+    /**
+     * resumeAfterId : 이전 실행이 실패했을 때 ChunkedUpdateException의 lastProcessedId (처음 실행이면 null)
+     * chunkSize : 1 이상 (0 이하면 구간이 늘어나지 않아 끝나지 않음)
+     */
+    public ChunkedUpdateResult bulkAgePlus(int age, Long resumeAfterId, int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("chunkSize는 0보다 커야 합니다: " + chunkSize);
+        }
+        long after = resumeAfterId == null ? Long.MIN_VALUE : resumeAfterId;
+        Object[] range = em.createQuery(
+                        "select min(m.id), max(m.id) from Member m where m.age >= :age and m.id > :after", Object[].class)
+                .setParameter("age", age)
+                .setParameter("after", after)
+                .getSingleResult();
+        if (range[0] == null) {
+            return new ChunkedUpdateResult(0, 0, resumeAfterId);
+        }
+        long maxId = (Long) range[1];
+
+        long updated = 0;
+        int chunks = 0;
+        long lo = (Long) range[0] - 1; // 구간은 (lo, hi]
+        Long done = resumeAfterId;
+        while (lo < maxId) {
+            long hi = Math.min(lo + chunkSize, maxId);
+            long from = lo;
+            int count;
+            try {
+                // 벌크 연산이라 하이버네이트가 Member 2차 캐시 region과 관련 쿼리 캐시를 비워줌
+                count = chunkTx.execute(status -> em.createQuery(
+                                "update versioned Member m set m.age = m.age + 1 where m.age >= :age and m.id > :lo and m.id <= :hi")
+                        .setParameter("age", age)
+                        .setParameter("lo", from)
+                        .setParameter("hi", hi)
+                        .executeUpdate());
+            } catch (RuntimeException e) {
+                em.clear();
+                throw new ChunkedUpdateException(new ChunkedUpdateResult(updated, chunks, done), e);
+            }
+            updated += count;
+            chunks++;
+            done = hi;
+            lo = hi;
+            updatedRows.increment(count);
+            committedChunks.increment();
+            lastProcessedId.set(hi);
+            log.debug("bulkAgePlus chunk committed: ({}, {}] / maxId={}", from, hi, maxId);
+        }
+        // @Modifying(clearAutomatically = true)와 같이 영속성 컨텍스트에 남아있는 변경 전 엔티티를 비움
+        em.clear();
+        return new ChunkedUpdateResult(updated, chunks, done);
+    }
+}
@@ -0,0 +1,18 @@
+package study.datajpa.repository.support;
+
+import lombok.Getter;
+
+/**
+ * 청크 단위 벌크 수정 도중 실패
+ * 이미 커밋된 청크는 반영되어 있으므로 progress.getLastProcessedId() 부터 다시 실행하면 이어서 처리된다.
+ */
+@Getter
+public class ChunkedUpdateException extends RuntimeException {
+
+    private final ChunkedUpdateResult progress;
+
+    public ChunkedUpdateException(ChunkedUpdateResult progress, Throwable cause) {
+        super("청크 단위 수정 중 실패, lastProcessedId=" + progress.getLastProcessedId() + " 이후부터 다시 실행하세요.", cause);
+        this.progress = progress;
+    }
+}
@@ -0,0 +1,23 @@
+package study.datajpa.repository.support;
+
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * 청크 단위 벌크 수정 결과
+ * lastProcessedId : 마지막으로 커밋된 청크의 끝 id (실패 시 이 값부터 다시 시작하면 됨)
+ */
+@Getter
+@ToString
+public class ChunkedUpdateResult {
+
+    private final long updatedRows;
+    private final int chunks;
+    private final Long lastProcessedId;
+
+    public ChunkedUpdateResult(long updatedRows, int chunks, Long lastProcessedId) {
+        this.updatedRows = updatedRows;
+        this.chunks = chunks;
+        this.lastProcessedId = lastProcessedId;
+    }
+}
@@ -0,0 +1,12 @@
+package study.datajpa.repository.support;
+
+/**
+ * 페이지 조회 시 totalCount를 어떻게 구할지
+ */
+public enum CountMode {
+
+    EXACT,  // 매번 count 쿼리 실행 (Page, 기본 동작)
+    CACHED, // 캐시된 count 사용, TTL이 지나거나 insert/delete/벌크 수정이 일어나면 다시 조회 (Page)
+    PARALLEL, // content 쿼리와 count 쿼리를 다른 커넥션에서 동시에 실행 (Page)
+    NONE    // count 쿼리 없이 다음 페이지 여부만 확인 (Slice)
+}
@@ -0,0 +1,50 @@
+package study.datajpa.repository.support;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 실제로 실행된 select / update / delete SQL을 중복 없이 모아둠 (p6spy 리스너인 JdbcStatementStats가 실행된 SQL을 넘겨줌)
+ * 리파지토리 인터페이스에 선언되지 않은 쿼리(MemberJpaRepository, MemberRepositoryImpl의 em.createQuery 등)도
+ * 한번 실행되고 나면 QueryPlanAnalyzer가 EXPLAIN 할 수 있음
+ * 최대 max-executed-sql 개까지만 모음
+ * 모든 SQL 실행마다 호출되므로 기본은 수집 안함 (datajpa.query-plan.collect-executed-sql=true 일 때만)
+ */
+@Component
+public class ExecutedSqlCollector {
+
+    private final Set<String> sqls = ConcurrentHashMap.newKeySet();
+    private final boolean enabled;
+    private final int maxSize;
+
+    public ExecutedSqlCollector(@Value("${datajpa.query-plan.collect-executed-sql:false}") boolean enabled,
+                                @Value("${datajpa.query-plan.max-executed-sql:1000}") int maxSize) {
+        this.enabled = enabled && maxSize > 0;
+        this.maxSize = maxSize;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void record(String sql) {
+        if (sql != null && sqls.size() < maxSize && isQuery(sql)) {
+            sqls.add(sql.trim());
+        }
+    }
+
+    public List<String> executedSql() {
+        return new ArrayList<>(sqls);
+    }
+
+    private boolean isQuery(String sql) {
+        String lower = sql.trim().toLowerCase(Locale.ROOT);
+        return lower.startsWith("select") || lower.startsWith("update") || lower.startsWith("delete");
+    }
+}
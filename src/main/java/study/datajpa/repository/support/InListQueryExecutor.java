@@ -0,0 +1,55 @@
+package study.datajpa.repository.support;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * in (...) 조회를 chunkSize 개씩 나눠서 실행하고 결과를 합쳐줌
+ * - 중복 값은 한번만 넘김
+ * - chunkSize는 2의 거듭제곱으로 맞춤 : hibernate.query.in_clause_parameter_padding 이 파라미터 개수를 2의 거듭제곱으로 채우므로
+ *   꽉 찬 청크는 패딩이 필요 없고, 마지막 청크도 chunkSize 이하의 몇가지 SQL 모양으로만 나옴
+ *   (in 목록 크기마다 SQL이 달라지면 하이버네이트 쿼리 플랜 캐시, DB 실행계획 캐시가 계속 miss)
+ * - DB의 파라미터 개수 제한을 넘지 않음
+ *
+ * 청크는 호출한 트랜잭션(영속성 컨텍스트) 안에서 순서대로 실행한다.
+ * 병렬로 실행하려면 청크마다 다른 EntityManager/트랜잭션이 필요해서 결과 엔티티가 준영속이 되므로 사용하지 않음
+ *
+ * 메트릭 : repository.in_list.values (넘긴 값 개수), repository.in_list.chunks (실행한 쿼리 수)
+ */
+@Component
+public class InListQueryExecutor {
+
+    private final int chunkSize;
+    private final DistributionSummary values;
+    private final Counter chunks;
+
+    public InListQueryExecutor(@Value("${datajpa.in-list.chunk-size:1024}") int chunkSize, MeterRegistry meterRegistry) {
+        this.chunkSize = Integer.highestOneBit(Math.max(chunkSize, 1)); // 2의 거듭제곱으로 내림
+        this.values = DistributionSummary.builder("repository.in_list.values").register(meterRegistry);
+        this.chunks = Counter.builder("repository.in_list.chunks").register(meterRegistry);
+    }
+
+    public <T, R> List<R> query(Collection<T> params, Function<List<T>, List<R>> chunkQuery) {
+        List<T> distinct = new ArrayList<>(new LinkedHashSet<>(params));
+        values.record(distinct.size());
+        List<R> result = new ArrayList<>();
+        for (int from = 0; from < distinct.size(); from += chunkSize) { // 빈 목록이면 쿼리 실행 안함 (in () 는 문법 오류)
+            result.addAll(chunkQuery.apply(distinct.subList(from, Math.min(from + chunkSize, distinct.size()))));
+            chunks.increment();
+        }
+        return result;
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+}
@@ -0,0 +1,107 @@
+package study.datajpa.repository.support;
+
+import com.p6spy.engine.common.ResultSetInformation;
+import com.p6spy.engine.common.StatementInformation;
+import com.p6spy.engine.event.JdbcEventListener;
+import org.springframework.stereotype.Component;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.function.Supplier;
+
+/**
+ * p6spy 이벤트로 실제 실행된 JDBC 배치 수와 배치로 반영된 행 수, 실행된 SQL 수와 ResultSet에서 읽은 행 수를 센다. (스레드별 누적값)
+ * p6spy-spring-boot-starter가 JdbcEventListener 빈을 자동으로 등록해준다.
+ * 리스너를 하나로 두기 위해 실행된 SQL 수집(ExecutedSqlCollector)도 여기서 넘겨줌 (수집이 켜져 있을 때만)
+ * 사용하는 쪽에서 작업 전후 값의 차이로 해당 작업의 배치 수 / SQL 수를 구한다. (saveAllInBatch, RepositoryMetricsAspect, 테스트)
+ *
+ * ★주의: 실행한 스레드에 누적되므로 다른 스레드에서 실행된 SQL은 호출한 쪽의 차이값에 잡히지 않는다.
+ * - @Async 리파지토리 메서드(findMemberDtoPageAsync 등)는 repositoryExecutor 스레드에서 실행
+ * - 병렬 count(findByAgeWithParallelCount, ParallelCountExecutor)의 count 쿼리는 pageCountExecutor 스레드에서 실행
+ * 그래서 이런 경로는 RepositoryMetricsAspect의 SQL 수 / N+1 의심 메트릭이 실제보다 적게 나온다.
+ *
+ * 테스트 예) assertThat(statementStats.measure(() -> memberRepository.findMemberFetchJoin()).getStatements()).isLessThanOrEqualTo(1);
+ */
+@Component
+public class JdbcStatementStats extends JdbcEventListener {
+
+    private static final int BATCHES = 0;
+    private static final int BATCH_ROWS = 1;
+    private static final int STATEMENTS = 2;
+    private static final int RESULT_ROWS = 3;
+
+    private static final ThreadLocal<long[]> COUNTS = ThreadLocal.withInitial(() -> new long[4]);
+
+    private final ExecutedSqlCollector executedSqlCollector; // 수집하지 않으면 null
+
+    public JdbcStatementStats(ExecutedSqlCollector executedSqlCollector) {
+        this.executedSqlCollector = executedSqlCollector.isEnabled() ? executedSqlCollector : null;
+    }
+
+    @Override
+    public void onAfterExecuteBatch(StatementInformation statementInformation, long timeElapsedNanos,
+                                    int[] updateCounts, SQLException e) {
+        super.onAfterExecuteBatch(statementInformation, timeElapsedNanos, updateCounts, e); // -> onAfterAnyExecute (SQL 수)
+        if (e != null) {
+            return;
+        }
+        long[] counts = COUNTS.get();
+        counts[BATCHES]++;
+        for (int updateCount : updateCounts) {
+            // 드라이버에 따라 성공했지만 행 수를 모르는 경우 SUCCESS_NO_INFO(-2)를 돌려줌
+            counts[BATCH_ROWS] += updateCount == Statement.SUCCESS_NO_INFO ? 1 : Math.max(updateCount, 0);
+        }
+    }
+
+    @Override
+    public void onAfterAnyExecute(StatementInformation statementInformation, long timeElapsedNanos, SQLException e) {
+        COUNTS.get()[STATEMENTS]++;
+        if (e == null && executedSqlCollector != null) {
+            executedSqlCollector.record(statementInformation.getSql());
+        }
+    }
+
+    @Override
+    public void onAfterResultSetNext(ResultSetInformation resultSetInformation, long timeElapsedNanos,
+                                     boolean hasNext, SQLException e) {
+        if (hasNext) {
+            COUNTS.get()[RESULT_ROWS]++;
+        }
+    }
+
+    public long batches() {
+        return COUNTS.get()[BATCHES];
+    }
+
+    public long rows() {
+        return COUNTS.get()[BATCH_ROWS];
+    }
+
+    /**
+     * 지금까지 현재 스레드에서 실행된 SQL 수, 읽은 행 수
+     */
+    public StatementCount current() {
+        long[] counts = COUNTS.get();
+        return new StatementCount(counts[STATEMENTS], counts[RESULT_ROWS]);
+    }
+
+    public StatementCount since(StatementCount before) {
+        long[] counts = COUNTS.get();
+        return new StatementCount(counts[STATEMENTS] - before.getStatements(), counts[RESULT_ROWS] - before.getRows());
+    }
+
+    /**
+     * work 실행 중에 현재 스레드에서 실행된 SQL 수
+     */
+    public StatementCount measure(Runnable work) {
+        StatementCount before = current();
+        work.run();
+        return since(before);
+    }
+
+    public <T> StatementCount measure(Supplier<T> work) {
+        StatementCount before = current();
+        work.get();
+        return since(before);
+    }
+}
@@ -0,0 +1,67 @@
+package study.datajpa.repository.support;
+
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * 키셋(seek) 페이징의 위치를 나타내는 커서
+ * 마지막으로 읽은 행의 (userName, id)를 담고 있고, 클라이언트에게는 불투명한 토큰 문자열로만 전달한다.
+ * 정렬 기준은 userName desc, id desc 이며 id는 userName이 같은 행들의 순서를 확정짓는 용도
+ */
+@Getter
+public class KeysetCursor {
+
+    private static final char SEPARATOR = ':';
+
+    private final String userName;
+    private final Long id;
+
+    /**
+     * 키가 null이면 토큰이 "null" 문자열이 되어 다음 페이지에서 'null'과 비교하게 되므로 거부
+     * (키셋 조회는 userName이 null인 회원을 제외함, MemberKeysetQuery)
+     */
+    public KeysetCursor(String userName, Long id) {
+        if (userName == null || id == null) {
+            throw new IllegalArgumentException("키셋 커서의 userName, id는 null일 수 없습니다: userName=" + userName + ", id=" + id);
+        }
+        this.userName = userName;
+        this.id = id;
+    }
+
+    /**
+     * 토큰 형식 : base64url("{id}:{userName}")
+     * id는 숫자라서 첫번째 ':' 로 나누면 userName에 ':'가 들어있어도 안전하게 복원됨
+     */
+    public String encode() {
+        String raw = id + String.valueOf(SEPARATOR) + userName;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 토큰이 없으면 첫 페이지를 의미하므로 null 반환
+     */
+    public static KeysetCursor decode(String token) {
+        if (token == null || token.isEmpty()) {
+            return null;
+        }
+        String raw;
+        try {
+            raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("잘못된 커서 토큰입니다: " + token, e);
+        }
+        int idx = raw.indexOf(SEPARATOR);
+        if (idx <= 0) {
+            throw new IllegalArgumentException("잘못된 커서 토큰입니다: " + token);
+        }
+        try {
+            Long id = Long.valueOf(raw.substring(0, idx));
+            return new KeysetCursor(raw.substring(idx + 1), id);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("잘못된 커서 토큰입니다: " + token, e);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package study.datajpa.repository.support;
+
+import lombok.Getter;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 키셋 페이징 결과 (Slice와 비슷하지만 페이지 번호 대신 다음 위치를 가리키는 커서를 가짐)
+ * count 쿼리가 없고, offset으로 앞 행들을 버리지 않기 때문에 몇번째 페이지든 조회 비용이 일정하다.
+ */
+@Getter
+public class KeysetWindow<T> {
+
+    private final List<T> content;
+    private final int size;
+    private final boolean hasNext;
+    private final String nextCursor; // 다음 페이지가 없으면 null
+
+    public KeysetWindow(List<T> content, int size, boolean hasNext, String nextCursor) {
+        this.content = Collections.unmodifiableList(content);
+        this.size = size;
+        this.hasNext = hasNext;
+        this.nextCursor = nextCursor;
+    }
+
+    /**
+     * size + 1 건을 조회한 결과로 Window를 만든다. (Slice와 같은 방식으로 한 건을 더 가져와서 다음 페이지 여부 확인)
+     * 다음 페이지가 있으면 현재 페이지 마지막 행의 키로 커서를 만든다.
+     */
+    public static <T> KeysetWindow<T> of(List<T> rows, int size, Function<? super T, KeysetCursor> cursorOf) {
+        checkSize(size);
+        boolean hasNext = rows.size() > size;
+        List<T> content = hasNext ? rows.subList(0, size) : rows;
+        String nextCursor = hasNext ? cursorOf.apply(content.get(content.size() - 1)).encode() : null;
+        return new KeysetWindow<>(content, size, hasNext, nextCursor);
+    }
+
+    static void checkSize(int size) {
+        if (size < 1) {
+            throw new IllegalArgumentException("size는 1 이상이어야 합니다: " + size);
+        }
+    }
+
+    /**
+     * 엔티티를 api로 반환할 때 Dto로 변환하기 위해 사용 (Page.map과 같은 용도)
+     */
+    public <U> KeysetWindow<U> map(Function<? super T, ? extends U> converter) {
+        List<U> converted = content.stream().map(converter).collect(Collectors.toList());
+        return new KeysetWindow<>(converted, size, hasNext, nextCursor);
+    }
+}
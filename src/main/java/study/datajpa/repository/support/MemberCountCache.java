@@ -0,0 +1,111 @@
+package study.datajpa.repository.support;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * 페이지 count 쿼리 결과 캐시
+ * 전체 회원 수는 페이지를 넘길 때마다 거의 바뀌지 않는데, Page를 반환하면 매번 count 쿼리가 실행된다.
+ * TTL 동안은 캐시된 값을 사용하고, 회원 insert/delete 또는 벌크 수정이 일어나면 무효화한다.
+ *
+ * 메트릭 : member.count.query (result=executed|avoided), member.count.cache.invalidation
+ */
+@Component
+public class MemberCountCache {
+
+    private final Duration ttl;
+    private final Map<String, CachedCount> counts = new ConcurrentHashMap<>();
+
+    private final Counter executed;
+    private final Counter avoided;
+    private final Counter invalidations;
+
+    public MemberCountCache(@Value("${datajpa.count-cache.ttl:30s}") Duration ttl, MeterRegistry meterRegistry) {
+        this.ttl = ttl;
+        this.executed = Counter.builder("member.count.query")
+                .description("count queries executed for member pages")
+                .tag("result", "executed")
+                .register(meterRegistry);
+        this.avoided = Counter.builder("member.count.query")
+                .description("count queries avoided for member pages")
+                .tag("result", "avoided")
+                .register(meterRegistry);
+        this.invalidations = Counter.builder("member.count.cache.invalidation")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 캐시된 값이 유효하면 그대로 반환하고, 아니면 countQuery를 실행해서 캐시에 담는다.
+     */
+    public long get(String key, LongSupplier countQuery) {
+        long now = System.nanoTime();
+        CachedCount cached = counts.get(key);
+        if (cached != null && now < cached.expiresAt) {
+            avoided.increment();
+            return cached.count;
+        }
+        long count = countQuery.getAsLong();
+        executed.increment();
+        counts.put(key, new CachedCount(count, now + ttl.toNanos()));
+        return count;
+    }
+
+    /**
+     * count 쿼리 자체를 실행하지 않은 경우 (Slice 조회)
+     */
+    public void recordAvoided() {
+        avoided.increment();
+    }
+
+    /**
+     * 즉시 무효화하고, 트랜잭션 안이라면 커밋 이후에도 한번 더 무효화한다.
+     * (커밋 전에 다른 요청이 옛날 count를 다시 캐시에 넣는 경우를 막기 위함)
+     * 대량 저장 시 insert 마다 호출되므로 트랜잭션당 한번만 등록한다.
+     */
+    public void invalidate() {
+        clear();
+        if (TransactionSynchronizationManager.isSynchronizationActive()
+                && !TransactionSynchronizationManager.hasResource(this)) {
+            TransactionSynchronizationManager.bindResource(this, Boolean.TRUE);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(MemberCountCache.this);
+                    clear();
+                }
+            });
+        }
+    }
+
+    public double executedCount() {
+        return executed.count();
+    }
+
+    public double avoidedCount() {
+        return avoided.count();
+    }
+
+    private void clear() {
+        counts.clear();
+        invalidations.increment();
+    }
+
+    private static class CachedCount {
+        private final long count;
+        private final long expiresAt;
+
+        private CachedCount(long count, long expiresAt) {
+            this.count = count;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package study.datajpa.repository.support;
+
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.annotation.AfterReturning;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+/**
+ * 벌크 연산은 영속성 컨텍스트를 거치지 않아서 엔티티 리스너(MemberCountListener)가 호출되지 않는다.
+ * 그래서 벌크 수정/삭제 메서드가 실행되면 count 캐시를 직접 무효화한다.
+ */
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class MemberCountCacheAspect {
+
+    private final MemberCountCache memberCountCache;
+
+    @AfterReturning("execution(* study.datajpa.repository.MemberRepository.bulkAgePlus(..))" +
+            " || execution(* study.datajpa.repository.MemberRepository.*InBatch(..))" +
+            " || execution(* study.datajpa.repository.MemberJpaRepository.bulkAgePlus(..))")
+    public void invalidateAfterBulk() {
+        memberCountCache.invalidate();
+    }
+}
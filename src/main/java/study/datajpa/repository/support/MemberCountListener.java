@@ -0,0 +1,23 @@
+package study.datajpa.repository.support;
+
+import javax.persistence.PostPersist;
+import javax.persistence.PostRemove;
+
+/**
+ * 회원이 추가/삭제되면 count 캐시를 무효화하는 엔티티 리스너
+ * 스프링 부트가 하이버네이트에 SpringBeanContainer를 등록해주기 때문에 엔티티 리스너도 생성자 주입을 받을 수 있다.
+ */
+public class MemberCountListener {
+
+    private final MemberCountCache memberCountCache;
+
+    public MemberCountListener(MemberCountCache memberCountCache) {
+        this.memberCountCache = memberCountCache;
+    }
+
+    @PostPersist
+    @PostRemove
+    public void invalidateCount(Object member) {
+        memberCountCache.invalidate();
+    }
+}
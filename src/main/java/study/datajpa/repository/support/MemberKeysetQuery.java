@@ -0,0 +1,48 @@
+package study.datajpa.repository.support;
+
+import study.datajpa.entity.Member;
+
+import javax.persistence.EntityManager;
+import javax.persistence.TypedQuery;
+import java.util.List;
+
+/**
+ * 회원 키셋(seek) 페이징 쿼리 (MemberJpaRepository, MemberRepositoryImpl 공용)
+ * offset 대신 (userName, id) < (커서의 userName, 커서의 id) 조건으로 다음 페이지 시작 위치를 찾음
+ * 정렬 컬럼 조합이 유일해야 행이 빠지거나 중복되지 않으므로 id를 같이 정렬 기준으로 사용
+ * userName이 null인 회원은 비교 조건으로 위치를 찾을 수 없으므로 제외 (KeysetCursor도 null 키를 거부)
+ */
+public final class MemberKeysetQuery {
+
+    private MemberKeysetQuery() {
+    }
+
+    /**
+     * age가 null이면 전체 회원, cursor가 null이면 첫 페이지
+     */
+    public static KeysetWindow<Member> find(EntityManager em, Integer age, String cursor, int size) {
+        KeysetWindow.checkSize(size);
+        KeysetCursor after = KeysetCursor.decode(cursor);
+
+        StringBuilder jpql = new StringBuilder("select m from Member m where m.userName is not null");
+        if (age != null) {
+            jpql.append(" and m.age = :age");
+        }
+        if (after != null) {
+            jpql.append(" and (m.userName < :userName or (m.userName = :userName and m.id < :id))");
+        }
+        jpql.append(" order by m.userName desc, m.id desc");
+
+        TypedQuery<Member> query = em.createQuery(jpql.toString(), Member.class);
+        if (age != null) {
+            query.setParameter("age", age);
+        }
+        if (after != null) {
+            query.setParameter("userName", after.getUserName())
+                    .setParameter("id", after.getId());
+        }
+        List<Member> rows = query.setMaxResults(size + 1) // 다음 페이지 여부 확인용으로 한 건 더 조회
+                .getResultList();
+        return KeysetWindow.of(rows, size, m -> new KeysetCursor(m.getUserName(), m.getId()));
+    }
+}
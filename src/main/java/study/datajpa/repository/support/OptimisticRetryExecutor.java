@@ -0,0 +1,91 @@
+package study.datajpa.repository.support;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * 낙관적 락 충돌 시 재시도
+ * work를 매번 새 트랜잭션(REQUIRES_NEW)에서 실행하고, 커밋까지 성공하면 결과를 반환한다.
+ * 충돌(ConcurrencyFailureException : 낙관적 락 실패, 락 타임아웃, 데드락)이 나면 트랜잭션을 롤백하고
+ * 잠깐 기다렸다가(지수 백오프 + jitter) 처음부터 다시 실행한다. 다시 조회하므로 다른 트랜잭션이 바꾼 값을 기준으로 수정하게 된다.
+ *
+ * ★주의: 재시도할 때마다 work 전체가 다시 실행되므로 work 안에서 트랜잭션 밖의 부수효과(외부 호출 등)를 만들면 안 된다.
+ * 바깥 트랜잭션 안에서 호출하면 바깥 트랜잭션은 잠시 보류되고 work는 별도로 커밋된다.
+ *
+ * 메트릭 : repository.retry.conflicts (충돌 횟수), repository.retry.exhausted (재시도를 다 써도 실패)
+ */
+@Slf4j
+@Component
+public class OptimisticRetryExecutor {
+
+    private final TransactionTemplate tx;
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+
+    private final Counter conflicts;
+    private final Counter exhausted;
+
+    public OptimisticRetryExecutor(PlatformTransactionManager transactionManager,
+                                   @Value("${datajpa.optimistic-retry.max-attempts:5}") int maxAttempts,
+                                   @Value("${datajpa.optimistic-retry.initial-backoff:10ms}") Duration initialBackoff,
+                                   @Value("${datajpa.optimistic-retry.max-backoff:200ms}") Duration maxBackoff,
+                                   MeterRegistry meterRegistry) {
+        this.tx = new TransactionTemplate(transactionManager);
+        this.tx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW); // 재시도마다 새 영속성 컨텍스트
+        this.maxAttempts = maxAttempts;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+        this.conflicts = Counter.builder("repository.retry.conflicts").register(meterRegistry);
+        this.exhausted = Counter.builder("repository.retry.exhausted").register(meterRegistry);
+    }
+
+    public <T> T execute(Supplier<T> work) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return tx.execute(status -> work.get());
+            } catch (ConcurrencyFailureException e) {
+                conflicts.increment();
+                if (attempt >= maxAttempts) {
+                    exhausted.increment();
+                    throw e;
+                }
+                log.debug("concurrent update conflict, retry {}/{}", attempt, maxAttempts - 1);
+                backoff(attempt, e);
+            }
+        }
+    }
+
+    public void run(Runnable work) {
+        execute(() -> {
+            work.run();
+            return null;
+        });
+    }
+
+    /**
+     * 재시도마다 대기 시간을 두배씩 늘리되(maxBackoff까지), 0 ~ 그 값 사이에서 랜덤으로 기다림
+     * 동시에 충돌한 트랜잭션들이 같은 시점에 다시 부딪히지 않도록
+     */
+    private void backoff(int attempt, ConcurrencyFailureException cause) {
+        long cap = Math.min(maxBackoff.toNanos(), initialBackoff.toNanos() << Math.min(attempt - 1, 20));
+        long sleep = ThreadLocalRandom.current().nextLong(cap + 1);
+        try {
+            Thread.sleep(sleep / 1_000_000, (int) (sleep % 1_000_000));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw cause;
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package study.datajpa.repository.support;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.config.AsyncRepositoryConfig;
+import study.datajpa.config.ConnectionPoolSizingCheck;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Page 조회 시 content 쿼리와 count 쿼리를 동시에 실행
+ * 스프링 데이터는 content 쿼리 후 count 쿼리를 같은 커넥션에서 순서대로 실행해서 페이지 지연시간 = 두 쿼리 시간의 합이 된다.
+ * 여기서는 count 쿼리를 pageCountExecutor 스레드에서 별도의 읽기 전용 트랜잭션(커넥션)으로 먼저 시작해두고,
+ * content 쿼리는 호출한 스레드(트랜잭션)에서 실행한 뒤 두 결과가 모두 나오면 Page를 만든다. -> 지연시간 = 둘 중 긴 쪽
+ * content 엔티티는 호출한 쪽 영속성 컨텍스트에 그대로 올라감
+ *
+ * ★주의: 페이지 하나에 커넥션을 두개 사용함 (호출한 쪽은 이미 트랜잭션 커넥션을 잡고 있음)
+ * 동시 요청이 몰려 커넥션을 모두 잡고 있는 상태에서 count용 커넥션을 또 기다리면 connection-timeout으로 페이지가 실패하므로
+ * 아래 경우에는 count를 따로 실행하지 않고 호출한 트랜잭션에서 순서대로 실행한다.
+ * - 커넥션 풀에 남는(idle) 커넥션이 없을 때
+ * - count 스레드가 모두 사용 중이라 pageCountExecutor가 작업을 거절했을 때
+ * count는 별도 트랜잭션이라 호출한 트랜잭션에서 아직 커밋하지 않은 변경은 보이지 않는다.
+ * datajpa.paging.parallel-count.enabled=false 면 항상 같은 트랜잭션에서 순서대로 실행
+ */
+@Component
+public class ParallelCountExecutor {
+
+    private final Executor executor;
+    private final TransactionTemplate readOnlyTx;
+    private final List<HikariDataSource> pools;
+    private volatile boolean enabled;
+
+    public ParallelCountExecutor(@Qualifier(AsyncRepositoryConfig.PAGE_COUNT_EXECUTOR) Executor executor,
+                                 PlatformTransactionManager transactionManager,
+                                 Map<String, DataSource> dataSources,
+                                 @Value("${datajpa.paging.parallel-count.enabled:true}") boolean enabled) {
+        this.executor = executor;
+        this.pools = ConnectionPoolSizingCheck.hikariPools(dataSources);
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.readOnlyTx.setReadOnly(true);
+        this.enabled = enabled;
+    }
+
+    public <T> Page<T> page(Pageable pageable, Supplier<List<T>> content, LongSupplier count) {
+        if (!enabled || !hasIdleConnection()) {
+            return PageableExecutionUtils.getPage(content.get(), pageable, count);
+        }
+        CompletableFuture<Long> total;
+        try {
+            total = CompletableFuture.supplyAsync(() -> readOnlyTx.execute(status -> count.getAsLong()), executor);
+        } catch (RejectedExecutionException e) { // count 스레드가 모두 사용 중
+            return PageableExecutionUtils.getPage(content.get(), pageable, count);
+        }
+        List<T> rows;
+        try {
+            rows = content.get();
+        } catch (RuntimeException e) {
+            total.cancel(false);
+            throw e;
+        }
+        Page<T> page = PageableExecutionUtils.getPage(rows, pageable, () -> join(total));
+        total.cancel(false); // content만으로 totalCount를 알 수 있으면 (마지막 페이지 등) count 결과는 사용하지 않음
+        return page;
+    }
+
+    /**
+     * 벤치마크 등에서 켜고 끄기 위해 (기본값은 datajpa.paging.parallel-count.enabled)
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * 모든 hikari 풀에 바로 가져갈 수 있는 커넥션이 있는지 (라우팅을 켜면 count가 어느 풀로 갈지 모르므로 모두 확인)
+     * 풀이 아직 시작 전이면(MXBean 없음) 있다고 봄
+     */
+    private boolean hasIdleConnection() {
+        for (HikariDataSource pool : pools) {
+            HikariPoolMXBean mxBean = pool.getHikariPoolMXBean();
+            if (mxBean != null && mxBean.getIdleConnections() == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private long join(CompletableFuture<Long> total) {
+        try {
+            return total.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+}
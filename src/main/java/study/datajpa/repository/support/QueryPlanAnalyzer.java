@@ -0,0 +1,223 @@
+package study.datajpa.repository.support;
+
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.core.RepositoryInformation;
+import org.springframework.data.repository.support.Repositories;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.NamedQuery;
+import javax.sql.DataSource;
+import java.lang.reflect.Method;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 리파지토리 쿼리를 SQL로 바꿔서 EXPLAIN을 실행하고, 어떤 인덱스를 타는지 / 테이블 전체를 읽는지(table scan) 알려줌
+ * - 시작 시 (datajpa.query-plan.analyze-on-startup) : table scan이면 경고 로그, 아니면 사용한 인덱스를 info 로그
+ * - 필요할 때 : GET /actuator/queryplans (QueryPlanEndpoint) 또는 analyzeAll() 직접 호출
+ *
+ * 분석 대상
+ * - 스프링 데이터 리파지토리의 쿼리 메서드 중 쿼리 문자열이 있는 것 : @Query(JPQL, native), 네임드쿼리
+ *   JPQL은 하이버네이트 쿼리 플랜으로 실제 SQL을 만든다 (파라미터는 ? 그대로)
+ * - 실행 중 수집한 SQL (ExecutedSqlCollector, datajpa.query-plan.collect-executed-sql=true 일 때만)
+ *   메서드 이름으로 만드는 쿼리(PartTree)와 MemberJpaRepository 처럼 코드 안에서 만드는 쿼리
+ *   메서드 이름 쿼리는 스프링 데이터가 Criteria로 만드는데(IgnoreCase, In, 중첩 프로퍼티, OrderBy 등) 그대로 흉내내기 어려우므로
+ *   따로 JPQL을 만들지 않고 하이버네이트가 실제로 실행한 SQL을 분석한다. (한번 호출된 뒤에 보임)
+ *
+ * EXPLAIN 결과 형식이 DB마다 달라서 H2에서만 동작 (다른 DB면 경고 로그만 남기고 분석하지 않음)
+ * H2 플랜의 테이블마다 붙는 주석으로 판단 : PUBLIC.MEMBER.tableScan = 전체 읽기, PUBLIC.IDX_xxx: 조건 = 인덱스 사용
+ */
+@Slf4j
+@Component
+public class QueryPlanAnalyzer {
+
+    private static final String EXECUTED = "executed";
+    private static final Pattern PLAN_COMMENT = Pattern.compile("/\\* (\\w+)\\.(\\w+)(\\.tableScan)?(?::[^*]*)? \\*/");
+    private static final Pattern NAMED_PARAMETER = Pattern.compile("(?<!:):\\w+");
+
+    private final ApplicationContext applicationContext;
+    private final SessionFactoryImplementor sessionFactory;
+    private final DataSource dataSource;
+    private final ExecutedSqlCollector executedSqlCollector;
+    private final boolean analyzeOnStartup;
+    private volatile Boolean supported;
+
+    public QueryPlanAnalyzer(ApplicationContext applicationContext, EntityManagerFactory entityManagerFactory,
+                             DataSource dataSource, ExecutedSqlCollector executedSqlCollector,
+                             @Value("${datajpa.query-plan.analyze-on-startup:true}") boolean analyzeOnStartup) {
+        this.applicationContext = applicationContext;
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        this.dataSource = dataSource;
+        this.executedSqlCollector = executedSqlCollector;
+        this.analyzeOnStartup = analyzeOnStartup;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void logOnStartup() {
+        if (!analyzeOnStartup) {
+            return;
+        }
+        for (QueryPlanReport report : analyzeAll()) {
+            if (report.getError() != null) {
+                log.warn("[query plan] {} : EXPLAIN 실패 ({})", report.getSource(), report.getError());
+            } else if (report.isTableScan()) {
+                log.warn("[query plan] {} : table scan {} (index {})\n{}",
+                        report.getSource(), report.getTableScans(), report.getIndexes(), report.getSql());
+            } else {
+                log.info("[query plan] {} : index {}", report.getSource(), report.getIndexes());
+            }
+        }
+    }
+
+    /**
+     * 리파지토리 쿼리 메서드 + 실행 중 수집한 SQL (리파지토리 쿼리와 같은 SQL은 한번만)
+     */
+    public List<QueryPlanReport> analyzeAll() {
+        List<QueryPlanReport> reports = analyzeRepositories();
+        Set<String> analyzed = new HashSet<>();
+        reports.forEach(report -> analyzed.add(report.getSql()));
+        for (QueryPlanReport report : analyzeExecuted()) {
+            if (analyzed.add(report.getSql())) {
+                reports.add(report);
+            }
+        }
+        return reports;
+    }
+
+    public List<QueryPlanReport> analyzeRepositories() {
+        List<QueryPlanReport> reports = new ArrayList<>();
+        if (!isSupported()) {
+            return reports;
+        }
+        Repositories repositories = new Repositories(applicationContext);
+        for (Class<?> domainType : repositories) {
+            Optional<RepositoryInformation> information = repositories.getRepositoryInformationFor(domainType);
+            if (information.isEmpty()) {
+                continue;
+            }
+            String repository = information.get().getRepositoryInterface().getSimpleName();
+            for (Method method : information.get().getQueryMethods()) {
+                String source = repository + "." + method.getName();
+                Map<String, String> queries;
+                try {
+                    queries = toSql(domainType, method, source); // 메서드 이름 쿼리는 비어있음 (analyzeExecuted)
+                } catch (RuntimeException e) {
+                    reports.add(QueryPlanReport.failed(source, null, e.getMessage()));
+                    continue;
+                }
+                queries.forEach((sql, label) -> reports.add(explain(label, sql)));
+            }
+        }
+        return reports;
+    }
+
+    public List<QueryPlanReport> analyzeExecuted() {
+        List<QueryPlanReport> reports = new ArrayList<>();
+        if (!isSupported()) {
+            return reports;
+        }
+        for (String sql : executedSqlCollector.executedSql()) {
+            reports.add(explain(EXECUTED, sql));
+        }
+        return reports;
+    }
+
+    public QueryPlanReport explain(String source, String sql) {
+        // 파라미터(?)를 바인딩하지 않아도 H2는 EXPLAIN을 실행해줌 (플랜에는 ?1, ?2 로 표시)
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement("explain " + sql);
+             ResultSet resultSet = statement.executeQuery()) {
+            String plan = resultSet.next() ? resultSet.getString(1) : "";
+            Set<String> indexes = new LinkedHashSet<>();
+            Set<String> tableScans = new LinkedHashSet<>();
+            Matcher matcher = PLAN_COMMENT.matcher(plan);
+            while (matcher.find()) {
+                if (matcher.group(3) != null) {
+                    tableScans.add(matcher.group(2));
+                } else {
+                    indexes.add(matcher.group(2));
+                }
+            }
+            return new QueryPlanReport(source, sql, plan, new ArrayList<>(indexes), new ArrayList<>(tableScans));
+        } catch (SQLException e) {
+            return QueryPlanReport.failed(source, sql, e.getMessage());
+        }
+    }
+
+    /**
+     * 반환값 : SQL -> 출처 (count 쿼리는 "메서드 (count)")
+     * 스프링 데이터가 쿼리를 찾는 순서와 같게 @Query -> 네임드쿼리, 둘 다 없으면 메서드 이름 쿼리라 빈 map
+     */
+    private Map<String, String> toSql(Class<?> domainType, Method method, String source) {
+        Map<String, String> queries = new LinkedHashMap<>();
+        Query query = AnnotatedElementUtils.findMergedAnnotation(method, Query.class);
+        if (query != null && StringUtils.hasText(query.value())) {
+            addQuery(queries, query.value(), query.nativeQuery(), source);
+            if (StringUtils.hasText(query.countQuery())) {
+                addQuery(queries, query.countQuery(), query.nativeQuery(), source + " (count)");
+            }
+            return queries;
+        }
+
+        String entityName = sessionFactory.getMetamodel().entity(domainType).getName();
+        String queryName = query != null && StringUtils.hasText(query.name()) ? query.name() : entityName + "." + method.getName();
+        namedQuery(domainType, queryName).ifPresent(jpql -> addQuery(queries, jpql, false, source));
+        return queries;
+    }
+
+    private void addQuery(Map<String, String> queries, String query, boolean nativeQuery, String source) {
+        if (nativeQuery) {
+            queries.putIfAbsent(NAMED_PARAMETER.matcher(query).replaceAll("?"), source);
+            return;
+        }
+        String[] sqls = sessionFactory.getQueryPlanCache()
+                .getHQLQueryPlan(query, false, Collections.emptyMap())
+                .getSqlStrings();
+        Arrays.stream(sqls).forEach(sql -> queries.putIfAbsent(sql, source));
+    }
+
+    private Optional<String> namedQuery(Class<?> domainType, String name) {
+        return Arrays.stream(domainType.getAnnotationsByType(NamedQuery.class))
+                .filter(namedQuery -> namedQuery.name().equals(name))
+                .map(NamedQuery::query)
+                .findFirst();
+    }
+
+    private boolean isSupported() {
+        if (supported == null) {
+            try (Connection connection = dataSource.getConnection()) {
+                supported = "H2".equals(connection.getMetaData().getDatabaseProductName());
+            } catch (SQLException e) {
+                log.warn("[query plan] DB 확인 실패", e);
+                return false;
+            }
+            if (!supported) {
+                log.warn("[query plan] H2가 아니라서 EXPLAIN 분석을 하지 않음");
+            }
+        }
+        return supported;
+    }
+}
@@ -0,0 +1,38 @@
+package study.datajpa.repository.support;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Component;
+
+import javax.persistence.EntityManagerFactory;
+
+/**
+ * 하이버네이트 쿼리 플랜 캐시 적중률 (generate_statistics: true 필요)
+ * hit/miss 개수는 스프링 부트가 hibernate.cache.query.plan (result=hit|miss) 으로 등록해주고, 여기서는 비율만 추가
+ * in 목록 크기마다 다른 플랜이 만들어지면 이 값이 떨어짐 (InListQueryExecutor 참고)
+ */
+@Component
+public class QueryPlanCacheMetrics implements MeterBinder {
+
+    private final Statistics statistics;
+
+    public QueryPlanCacheMetrics(EntityManagerFactory entityManagerFactory) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("hibernate.query.plan.cache.hit.ratio", this, QueryPlanCacheMetrics::hitRatio)
+                .description("query plan cache hits / (hits + misses)")
+                .register(registry);
+    }
+
+    public double hitRatio() {
+        long hits = statistics.getQueryPlanCacheHitCount();
+        long total = hits + statistics.getQueryPlanCacheMissCount();
+        return total == 0 ? 0 : (double) hits / total;
+    }
+}
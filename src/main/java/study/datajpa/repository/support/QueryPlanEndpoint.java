@@ -0,0 +1,27 @@
+package study.datajpa.repository.support;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * GET /actuator/queryplans : 지금 시점의 리파지토리 쿼리 EXPLAIN 결과 (QueryPlanAnalyzer)
+ * datajpa.query-plan.collect-executed-sql=true 이면 실행 중 수집한 SQL도 포함되므로 애플리케이션을 한동안 사용한 뒤에 보면 더 많은 쿼리가 나옴
+ */
+@Component
+@Endpoint(id = "queryplans")
+public class QueryPlanEndpoint {
+
+    private final QueryPlanAnalyzer queryPlanAnalyzer;
+
+    public QueryPlanEndpoint(QueryPlanAnalyzer queryPlanAnalyzer) {
+        this.queryPlanAnalyzer = queryPlanAnalyzer;
+    }
+
+    @ReadOperation
+    public List<QueryPlanReport> queryPlans() {
+        return queryPlanAnalyzer.analyzeAll();
+    }
+}
@@ -0,0 +1,50 @@
+package study.datajpa.repository.support;
+
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.List;
+
+/**
+ * 쿼리 하나의 EXPLAIN 결과 (QueryPlanAnalyzer)
+ * source : 리파지토리 메서드 (MemberRepository.findUser) 또는 실행 중 수집한 SQL이면 "executed"
+ * indexes : 사용한 인덱스 (PRIMARY_KEY_xx 는 pk), tableScans : 인덱스 없이 전체를 읽는 테이블
+ * EXPLAIN을 못 했으면 error에 이유가 들어있음
+ */
+@Getter
+@ToString
+public class QueryPlanReport {
+
+    private final String source;
+    private final String sql;
+    private final String plan;
+    private final List<String> indexes;
+    private final List<String> tableScans;
+    private final String error;
+
+    public QueryPlanReport(String source, String sql, String plan, List<String> indexes, List<String> tableScans) {
+        this.source = source;
+        this.sql = sql;
+        this.plan = plan;
+        this.indexes = indexes;
+        this.tableScans = tableScans;
+        this.error = null;
+    }
+
+    private QueryPlanReport(String source, String sql, String error) {
+        this.source = source;
+        this.sql = sql;
+        this.plan = null;
+        this.indexes = List.of();
+        this.tableScans = List.of();
+        this.error = error;
+    }
+
+    public static QueryPlanReport failed(String source, String sql, String error) {
+        return new QueryPlanReport(source, sql, error);
+    }
+
+    public boolean isTableScan() {
+        return !tableScans.isEmpty();
+    }
+}
@@ -0,0 +1,109 @@
+package study.datajpa.repository.support;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 리파지토리 메서드 호출마다 지연시간, 실행한 SQL 수, 읽은 행 수를 기록 (p6spy 이벤트 기반, JdbcStatementStats)
+ * 한번의 호출에서 SQL이 threshold 보다 많이 실행되면 N+1 의심으로 경고 로그 + 카운터 증가
+ * SQL 수는 호출한 스레드 기준이라 @Async, 병렬 count처럼 다른 스레드에서 실행된 SQL은 빠짐 (JdbcStatementStats 참고)
+ *
+ * 메트릭 (tag : repository, method)
+ * - repository.method (Timer, 히스토그램)
+ * - repository.method.statements, repository.method.rows (DistributionSummary)
+ * - repository.method.n_plus_one (Counter)
+ */
+@Slf4j
+@Aspect
+@Component
+public class RepositoryMetricsAspect {
+
+    private static final String REPOSITORY_PACKAGE = "study.datajpa.repository";
+
+    private final JdbcStatementStats statementStats;
+    private final MeterRegistry meterRegistry;
+    private final int nPlusOneThreshold;
+    private final Map<String, Meters> meters = new ConcurrentHashMap<>();
+
+    public RepositoryMetricsAspect(JdbcStatementStats statementStats, MeterRegistry meterRegistry,
+                                   @Value("${datajpa.query-metrics.n-plus-one-threshold:10}") int nPlusOneThreshold) {
+        this.statementStats = statementStats;
+        this.meterRegistry = meterRegistry;
+        this.nPlusOneThreshold = nPlusOneThreshold;
+    }
+
+    @Around("execution(* study.datajpa.repository..*Repository+.*(..))")
+    public Object record(ProceedingJoinPoint joinPoint) throws Throwable {
+        StatementCount before = statementStats.current();
+        long start = System.nanoTime();
+        try {
+            return joinPoint.proceed();
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            StatementCount count = statementStats.since(before);
+            String repository = repositoryName(joinPoint.getThis());
+            String method = joinPoint.getSignature().getName();
+            Meters m = meters.computeIfAbsent(repository + "." + method, key -> new Meters(repository, method));
+            m.timer.record(elapsed, TimeUnit.NANOSECONDS);
+            m.statements.record(count.getStatements());
+            m.rows.record(count.getRows());
+            if (count.getStatements() > nPlusOneThreshold) {
+                m.nPlusOne.increment();
+                log.warn("N+1 의심: {}.{} 호출에서 SQL {}번 실행 (threshold={})",
+                        repository, method, count.getStatements(), nPlusOneThreshold);
+            }
+        }
+    }
+
+    /**
+     * 스프링 데이터 리파지토리는 프록시라서 실제 구현체(SimpleJpaRepository)가 아니라 우리가 만든 인터페이스 이름을 사용
+     */
+    private String repositoryName(Object proxy) {
+        for (Class<?> type : ClassUtils.getAllInterfaces(proxy)) {
+            if (type.getName().startsWith(REPOSITORY_PACKAGE) && type.getSimpleName().endsWith("Repository")) {
+                return type.getSimpleName();
+            }
+        }
+        return ClassUtils.getUserClass(proxy).getSimpleName();
+    }
+
+    private class Meters {
+        private final Timer timer;
+        private final DistributionSummary statements;
+        private final DistributionSummary rows;
+        private final Counter nPlusOne;
+
+        private Meters(String repository, String method) {
+            this.timer = Timer.builder("repository.method")
+                    .tag("repository", repository)
+                    .tag("method", method)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry);
+            this.statements = DistributionSummary.builder("repository.method.statements")
+                    .tag("repository", repository)
+                    .tag("method", method)
+                    .register(meterRegistry);
+            this.rows = DistributionSummary.builder("repository.method.rows")
+                    .tag("repository", repository)
+                    .tag("method", method)
+                    .register(meterRegistry);
+            this.nPlusOne = Counter.builder("repository.method.n_plus_one")
+                    .tag("repository", repository)
+                    .tag("method", method)
+                    .register(meterRegistry);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package study.datajpa.repository.support;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 같은 key로 동시에 들어온 호출 중 처음 호출(leader)만 loader를 실행하고, 나머지(follower)는 그 결과를 기다려서 같이 받는다.
+ * leader가 예외로 끝나면 기다리던 follower들도 같은 예외를 받는다.
+ * 진행 중인 호출은 ConcurrentHashMap에 담는데, 키 해시 버킷 단위로만 잠그므로 전역 락 없이 서로 다른 key끼리는 경합하지 않는다.
+ * 호출이 끝나면 바로 map에서 빠지므로 결과를 캐시하지는 않음 (끝난 뒤 들어온 호출은 다시 leader가 됨)
+ */
+public class SingleFlight<K, V> {
+
+    @FunctionalInterface
+    public interface Loader<V> {
+        V load() throws Throwable;
+    }
+
+    private final ConcurrentHashMap<K, Call<V>> inFlight = new ConcurrentHashMap<>();
+
+    public Flight<V> execute(K key, Loader<V> loader) throws Throwable {
+        Call<V> mine = new Call<>();
+        Call<V> leader = inFlight.putIfAbsent(key, mine);
+        if (leader != null) {
+            leader.followers.incrementAndGet();
+            return new Flight<>(await(leader.future), false);
+        }
+        try {
+            V value = loader.load();
+            mine.future.complete(value);
+            return new Flight<>(value, true);
+        } catch (Throwable e) {
+            mine.future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    public int inFlightCount() {
+        return inFlight.size();
+    }
+
+    /**
+     * key로 진행 중인 호출의 결과를 기다리는 follower 수 (진행 중인 호출이 없으면 0)
+     */
+    public int followerCount(K key) {
+        Call<V> call = inFlight.get(key);
+        return call == null ? 0 : call.followers.get();
+    }
+
+    private V await(CompletableFuture<V> leader) throws Throwable {
+        try {
+            return leader.join();
+        } catch (CompletionException e) {
+            throw e.getCause(); // leader가 던진 예외 그대로
+        }
+    }
+
+    private static class Call<V> {
+        private final CompletableFuture<V> future = new CompletableFuture<>();
+        private final AtomicInteger followers = new AtomicInteger();
+    }
+
+    /**
+     * leader : 직접 loader를 실행했는지 (false면 다른 호출의 결과를 받은 것)
+     */
+    public static class Flight<V> {
+
+        private final V value;
+        private final boolean leader;
+
+        Flight(V value, boolean leader) {
+            this.value = value;
+            this.leader = leader;
+        }
+
+        public V getValue() {
+            return value;
+        }
+
+        public boolean isLeader() {
+            return leader;
+        }
+    }
+}
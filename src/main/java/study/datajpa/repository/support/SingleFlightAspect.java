@@ -0,0 +1,96 @@
+package study.datajpa.repository.support;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 인기 회원 조회(findById, findByUserName, findOptionalByUserName)가 동시에 몰릴 때 같은 조회는 DB에 한번만 보냄
+ *
+ * 같은 메서드 + 같은 파라미터로 동시에 호출되면 처음 호출(leader)만 DB를 조회하고, 나머지(follower)는 leader가 끝날 때까지 기다린 뒤
+ * leader의 결과를 그대로 받는다. (캐시 여부와 상관없이 DB 조회는 한번)
+ * leader가 예외로 끝나면 follower도 같은 예외를 받는다.
+ *
+ * ★주의: follower가 받는 회원은 leader의 영속성 컨텍스트에서 조회한 인스턴스라 follower 입장에서는 준영속 상태
+ * - 읽기 전용으로만 사용 (수정해도 follower 트랜잭션에서 변경 감지되지 않음)
+ * - 지연 로딩(member.getTeam() 등)은 leader의 영속성 컨텍스트가 닫힌 뒤면 LazyInitializationException
+ *   연관 엔티티가 필요하면 fetch join 조회 메서드를 사용
+ * 리스트는 호출자마다 새 리스트로 복사해서 돌려줌 (인스턴스는 공유)
+ *
+ * 쓰기 트랜잭션 안에서의 호출은 합치지 않음 : 자기 트랜잭션에서 방금 저장한(또는 영속성 컨텍스트에 있는) 회원을
+ * 다른 트랜잭션의 leader가 못 찾았다고 빈 결과를 받으면 안되므로 (read-your-own-writes)
+ *
+ * 메트릭 : repository.single_flight (tag method, role=leader|follower)
+ */
+@Aspect
+@Component
+public class SingleFlightAspect {
+
+    private static final List<String> METHODS = List.of("findById", "findByUserName", "findOptionalByUserName");
+
+    private final SingleFlight<List<Object>, Object> singleFlight = new SingleFlight<>();
+    private final Map<String, Counter> leaders = new HashMap<>();
+    private final Map<String, Counter> followers = new HashMap<>();
+    private volatile boolean enabled;
+
+    public SingleFlightAspect(MeterRegistry meterRegistry,
+                              @Value("${datajpa.single-flight.enabled:true}") boolean enabled) {
+        this.enabled = enabled;
+        for (String method : METHODS) {
+            leaders.put(method, counter(meterRegistry, method, "leader"));
+            followers.put(method, counter(meterRegistry, method, "follower"));
+        }
+    }
+
+    @Around("execution(* study.datajpa.repository.MemberRepository.findById(..))" +
+            " || execution(* study.datajpa.repository.MemberRepository.findByUserName(..))" +
+            " || execution(* study.datajpa.repository.MemberRepository.findOptionalByUserName(..))")
+    public Object coalesce(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (!enabled || isReadWriteTransaction()) {
+            return joinPoint.proceed();
+        }
+        String method = joinPoint.getSignature().getName();
+        List<Object> key = new ArrayList<>();
+        key.add(method);
+        key.addAll(Arrays.asList(joinPoint.getArgs()));
+
+        SingleFlight.Flight<Object> flight = singleFlight.execute(key, joinPoint::proceed);
+        if (flight.isLeader()) {
+            leaders.get(method).increment();
+            return flight.getValue();
+        }
+        followers.get(method).increment();
+        Object value = flight.getValue();
+        return value instanceof List ? new ArrayList<>((List<?>) value) : value;
+    }
+
+    /**
+     * 벤치마크 등에서 켜고 끄기 위해 (기본값은 datajpa.single-flight.enabled)
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    private boolean isReadWriteTransaction() {
+        return TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String method, String role) {
+        return Counter.builder("repository.single_flight")
+                .tag("method", method)
+                .tag("role", role)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,20 @@
+package study.datajpa.repository.support;
+
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * 어떤 작업이 실행한 SQL 수와 ResultSet에서 읽은 행 수
+ */
+@Getter
+@ToString
+public class StatementCount {
+
+    private final long statements;
+    private final long rows;
+
+    public StatementCount(long statements, long rows) {
+        this.statements = statements;
+        this.rows = rows;
+    }
+}
@@ -0,0 +1,198 @@
+package study.datajpa.repository.support;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 회원 이름(userName) 블룸 필터
+ * mightContain(name)이 false면 그 이름의 회원은 확실히 없음 -> DB 조회 생략 (UserNameFilterAspect)
+ * true면 있을 수도 있음 (false-positive-rate 확률로 없는데도 true) -> DB 조회
+ *
+ * - 비트 배열은 long[] 기반 AtomicLongArray : 여러 스레드가 같은 long에 비트를 켜도 유실되지 않음 (유실되면 있는 이름을 없다고 판단하게 됨)
+ * - 크기 : expected-insertions(n), false-positive-rate(p) 로 비트 수 m = -n ln p / (ln 2)^2, 해시 함수 수 k = m / n ln 2
+ * - 삭제는 비트를 끌 수 없으므로 다음 rebuild까지 false positive로 남음
+ * - rebuild 중에 추가된 이름은 현재 배열과 새로 만드는 배열 둘 다에 넣음
+ * - 처음 빌드가 끝나기 전(ready = false)에는 항상 true (DB 조회)
+ *
+ * 메트릭 : member.user_name_filter.memory (bytes), .expected_fpp, .estimated_fpp, .insertions, .removals
+ */
+@Component
+public class UserNameBloomFilter {
+
+    private static final long SEED1 = 0x9E3779B97F4A7C15L;
+    private static final long SEED2 = 0xC2B2AE3D27D4EB4FL;
+
+    private final boolean enabled;
+    private final double falsePositiveRate;
+    private final int words;
+    private final long numBits;
+    private final int numHashFunctions;
+
+    private volatile AtomicLongArray bits;
+    private volatile AtomicLongArray building; // rebuild 중인 배열 (없으면 null)
+    private volatile boolean ready;
+
+    private final AtomicLong insertions = new AtomicLong();
+    private final AtomicLong buildingInsertions = new AtomicLong();
+    private final AtomicLong removals = new AtomicLong(); // 마지막 rebuild 이후 삭제 수 (false positive로 남은 이름)
+
+    public UserNameBloomFilter(@Value("${datajpa.user-name-filter.enabled:true}") boolean enabled,
+                               @Value("${datajpa.user-name-filter.expected-insertions:1000000}") long expectedInsertions,
+                               @Value("${datajpa.user-name-filter.false-positive-rate:0.01}") double falsePositiveRate,
+                               MeterRegistry meterRegistry) {
+        if (expectedInsertions <= 0) {
+            throw new IllegalArgumentException("datajpa.user-name-filter.expected-insertions는 0보다 커야 합니다: " + expectedInsertions);
+        }
+        if (!(falsePositiveRate > 0 && falsePositiveRate < 1)) { // NaN도 거부
+            throw new IllegalArgumentException("datajpa.user-name-filter.false-positive-rate는 0과 1 사이여야 합니다: " + falsePositiveRate);
+        }
+        this.enabled = enabled;
+        this.falsePositiveRate = falsePositiveRate;
+        long m = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        this.words = (int) Math.max(1, (m + 63) / 64);
+        this.numBits = (long) words * 64;
+        this.numHashFunctions = Math.max(1, (int) Math.round((double) numBits / expectedInsertions * Math.log(2)));
+        this.bits = new AtomicLongArray(enabled ? words : 1);
+
+        Gauge.builder("member.user_name_filter.memory", this, f -> f.enabled ? f.words * 8.0 : 0)
+                .baseUnit("bytes").register(meterRegistry);
+        Gauge.builder("member.user_name_filter.expected_fpp", this, f -> f.falsePositiveRate).register(meterRegistry);
+        Gauge.builder("member.user_name_filter.estimated_fpp", this, UserNameBloomFilter::estimatedFalsePositiveRate)
+                .register(meterRegistry);
+        Gauge.builder("member.user_name_filter.insertions", insertions, AtomicLong::get).register(meterRegistry);
+        Gauge.builder("member.user_name_filter.removals", removals, AtomicLong::get).register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public boolean mightContain(String userName) {
+        if (!ready || userName == null) {
+            return true;
+        }
+        AtomicLongArray current = bits;
+        long h1 = hash(userName, SEED1);
+        long h2 = hash(userName, SEED2) | 1; // 홀수여야 모든 위치를 돌 수 있음
+        for (int i = 0; i < numHashFunctions; i++) {
+            long index = Math.floorMod(h1 + i * h2, numBits);
+            if ((current.get((int) (index >>> 6)) & (1L << index)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public void put(String userName) {
+        if (!enabled || userName == null) {
+            return;
+        }
+        set(bits, userName);
+        insertions.incrementAndGet();
+        AtomicLongArray next = building;
+        if (next != null) {
+            set(next, userName);
+            buildingInsertions.incrementAndGet();
+        }
+    }
+
+    /**
+     * 이미 put 한 이름을 다시 넣음 (insertions는 늘리지 않음, UserNameFilterListener의 커밋 후 처리)
+     */
+    void refresh(String userName) {
+        if (!enabled || userName == null) {
+            return;
+        }
+        set(bits, userName);
+        AtomicLongArray next = building;
+        if (next != null) {
+            set(next, userName);
+        }
+    }
+
+    public void recordRemoval() {
+        removals.incrementAndGet();
+    }
+
+    /**
+     * 새 배열을 만들기 시작. 이후 put은 현재 배열과 새 배열 둘 다에 들어감
+     */
+    void beginRebuild() {
+        buildingInsertions.set(0);
+        building = new AtomicLongArray(words);
+    }
+
+    /**
+     * 새 배열로 교체
+     */
+    void completeRebuild() {
+        bits = building;
+        building = null;
+        insertions.set(buildingInsertions.get());
+        removals.set(0);
+        ready = true;
+    }
+
+    void abortRebuild() {
+        building = null;
+    }
+
+    /**
+     * 현재 들어간 이름 수 기준 false positive 확률 (1 - e^(-kn/m))^k
+     */
+    public double estimatedFalsePositiveRate() {
+        if (!enabled) {
+            return 0;
+        }
+        return Math.pow(1 - Math.exp(-numHashFunctions * (double) insertions.get() / numBits), numHashFunctions);
+    }
+
+    public long getNumBits() {
+        return numBits;
+    }
+
+    public int getNumHashFunctions() {
+        return numHashFunctions;
+    }
+
+    private void set(AtomicLongArray array, String userName) {
+        long h1 = hash(userName, SEED1);
+        long h2 = hash(userName, SEED2) | 1;
+        for (int i = 0; i < numHashFunctions; i++) {
+            long index = Math.floorMod(h1 + i * h2, numBits);
+            int word = (int) (index >>> 6);
+            long mask = 1L << index;
+            long old;
+            do {
+                old = array.get(word);
+            } while ((old & mask) == 0 && !array.compareAndSet(word, old, old | mask));
+        }
+    }
+
+    /**
+     * 64비트 해시 (문자마다 섞고 마지막에 murmur3 fmix64)
+     */
+    private static long hash(String value, long seed) {
+        long h = seed ^ (value.length() * SEED1);
+        for (int i = 0; i < value.length(); i++) {
+            h ^= value.charAt(i);
+            h *= 0xFF51AFD7ED558CCDL;
+            h ^= h >>> 33;
+        }
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,84 @@
+package study.datajpa.repository.support;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Optional;
+
+/**
+ * 이름으로 회원을 찾을 때 블룸 필터가 "확실히 없음"이라고 하면 DB 조회 없이 빈 결과 반환
+ * (회원가입 시 이름 중복 확인은 대부분 없는 이름을 조회하므로 쿼리를 거의 안 보내게 됨)
+ * 쓰기 트랜잭션 안에서는 항상 DB 조회 : 아직 flush 하지 않은 변경(이름 변경 등)은 필터에 반영 전이고,
+ * 변경 여부를 확인하려면(Session.isDirty) 영속성 컨텍스트의 모든 엔티티를 비교해야 하므로 확인하지 않음
+ *
+ * ★주의: JPA를 거치지 않고 DB에 직접 넣은 회원은 다음 rebuild 전까지 없는 것으로 조회됨
+ *
+ * 메트릭 : member.user_name_filter.lookups (result=skipped|passed), member.user_name_filter.false_positives
+ */
+@Aspect
+@Order(0) // SingleFlightAspect 보다 먼저
+@Component
+public class UserNameFilterAspect {
+
+    private final UserNameBloomFilter filter;
+    private final Counter skipped;
+    private final Counter passed;
+    private final Counter falsePositives;
+
+    public UserNameFilterAspect(UserNameBloomFilter filter, MeterRegistry meterRegistry) {
+        this.filter = filter;
+        this.skipped = Counter.builder("member.user_name_filter.lookups").tag("result", "skipped").register(meterRegistry);
+        this.passed = Counter.builder("member.user_name_filter.lookups").tag("result", "passed").register(meterRegistry);
+        this.falsePositives = Counter.builder("member.user_name_filter.false_positives").register(meterRegistry);
+    }
+
+    @Around("execution(* study.datajpa.repository.MemberRepository.findMemberByUserName(String))" +
+            " || execution(* study.datajpa.repository.MemberRepository.findOptionalByUserName(String))" +
+            " || execution(* study.datajpa.repository.MemberRepository.findListByUserName(String))")
+    public Object skipAbsent(ProceedingJoinPoint joinPoint) throws Throwable {
+        String userName = (String) joinPoint.getArgs()[0];
+        if (!filter.isReady() || isReadWriteTransaction()) {
+            return joinPoint.proceed();
+        }
+        if (!filter.mightContain(userName)) {
+            skipped.increment();
+            return empty(joinPoint.getSignature().getName());
+        }
+        passed.increment();
+        Object result = joinPoint.proceed();
+        if (isEmpty(result)) {
+            falsePositives.increment(); // 필터는 있을 수도 있다고 했지만 실제로는 없음
+        }
+        return result;
+    }
+
+    private boolean isReadWriteTransaction() {
+        return TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+    }
+
+    private Object empty(String method) {
+        switch (method) {
+            case "findOptionalByUserName":
+                return Optional.empty();
+            case "findListByUserName":
+                return new ArrayList<>();
+            default:
+                return null;
+        }
+    }
+
+    private boolean isEmpty(Object result) {
+        return result == null
+                || (result instanceof Optional && !((Optional<?>) result).isPresent())
+                || (result instanceof Collection && ((Collection<?>) result).isEmpty());
+    }
+}
@@ -0,0 +1,51 @@
+package study.datajpa.repository.support;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import study.datajpa.config.TransactionScoped;
+import study.datajpa.entity.Member;
+
+import javax.persistence.PostPersist;
+import javax.persistence.PostRemove;
+import javax.persistence.PostUpdate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 회원 저장/이름 변경 시 블룸 필터에 이름 추가, 삭제는 기록만 (다음 rebuild 때 빠짐)
+ * 커밋 후에 한번 더 넣는 이유 : 커밋 전에 rebuild가 시작되면 새 필터에는 이 이름이 없고, rebuild의 조회에서도 아직 커밋 전이라 안 보임
+ * (커밋 후 처리는 트랜잭션마다 한번만 등록)
+ */
+public class UserNameFilterListener {
+
+    private final UserNameBloomFilter filter;
+    private final TransactionScoped<List<String>> committedNames;
+
+    public UserNameFilterListener(UserNameBloomFilter filter) {
+        this.filter = filter;
+        this.committedNames = new TransactionScoped<>(() -> {
+            List<String> names = new ArrayList<>();
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    names.forEach(filter::refresh);
+                }
+            });
+            return names;
+        });
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void add(Member member) {
+        filter.put(member.getUserName());
+        if (filter.isEnabled() && TransactionSynchronizationManager.isSynchronizationActive()) {
+            committedNames.get().add(member.getUserName());
+        }
+    }
+
+    @PostRemove
+    public void remove(Member member) {
+        filter.recordRemoval();
+    }
+}
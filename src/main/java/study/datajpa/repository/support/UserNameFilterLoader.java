@@ -0,0 +1,63 @@
+package study.datajpa.repository.support;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import study.datajpa.repository.MemberJpaRepository;
+
+/**
+ * 회원 이름 블룸 필터를 DB 전체 이름으로 다시 만듦
+ * 시작 시 한번, 이후 rebuild-interval-ms 마다 (삭제된 이름, DB에 직접 넣은 이름 반영)
+ * 전체 회원을 List로 올리지 않고 커서로 이름만 읽음 (MemberJpaRepository.scrollUserNames)
+ */
+@Slf4j
+@Component
+public class UserNameFilterLoader {
+
+    private final UserNameBloomFilter filter;
+    private final MemberJpaRepository memberJpaRepository;
+    private final int fetchSize;
+
+    public UserNameFilterLoader(UserNameBloomFilter filter, MemberJpaRepository memberJpaRepository,
+                                @Value("${datajpa.user-name-filter.fetch-size:1000}") int fetchSize) {
+        this.filter = filter;
+        this.memberJpaRepository = memberJpaRepository;
+        this.fetchSize = fetchSize;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        rebuild();
+    }
+
+    @Scheduled(fixedDelayString = "${datajpa.user-name-filter.rebuild-interval-ms:3600000}",
+            initialDelayString = "${datajpa.user-name-filter.rebuild-interval-ms:3600000}")
+    public void scheduledRebuild() {
+        rebuild();
+    }
+
+    /**
+     * 반환값 : 읽은 이름 수 (필터를 사용하지 않으면 -1)
+     */
+    public synchronized long rebuild() {
+        if (!filter.isEnabled()) {
+            return -1;
+        }
+        long start = System.nanoTime();
+        filter.beginRebuild();
+        try {
+            long count = memberJpaRepository.scrollUserNames(fetchSize, filter::put);
+            filter.completeRebuild();
+            log.info("userName bloom filter rebuilt: {} names, {} bits, k={}, {}ms",
+                    count, filter.getNumBits(), filter.getNumHashFunctions(), (System.nanoTime() - start) / 1_000_000);
+            return count;
+        } catch (RuntimeException e) {
+            filter.abortRebuild(); // 기존 필터를 그대로 사용
+            log.warn("userName bloom filter rebuild failed", e);
+            throw e;
+        }
+    }
+}
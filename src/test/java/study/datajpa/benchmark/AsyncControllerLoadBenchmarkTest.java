@@ -0,0 +1,105 @@
+package study.datajpa.benchmark;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.server.LocalServerPort;
+import study.datajpa.repository.MemberRepository;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 동시 클라이언트 수별 처리량 비교 : 동기 핸들러(/members/{id}, /members/dto) vs CompletableFuture 핸들러(/async/...)
+ * 톰캣 스레드를 일부러 작게(8개) 잡아서, 동기 방식은 톰캣 스레드 수에서 처리량이 막히고
+ * 비동기 방식은 repositoryExecutor 크기까지 동시에 DB를 사용하는지 확인
+ * ./gradlew benchmark 로 실행
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "server.tomcat.threads.max=8",
+        "server.tomcat.threads.min-spare=8",
+        "datajpa.async.pool-size=32",
+        "spring.datasource.hikari.maximum-pool-size=32",
+        "logging.level.org.hibernate.SQL=info"
+})
+@Tag("benchmark")
+class AsyncControllerLoadBenchmarkTest {
+
+    private static final int[] CLIENTS = {8, 64, 256};
+    private static final Duration WARMUP = Duration.ofSeconds(3);
+    private static final Duration DURATION = Duration.ofSeconds(10);
+
+    @LocalServerPort int port;
+    @Autowired MemberRepository memberRepository;
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .executor(Executors.newFixedThreadPool(16))
+            .build();
+
+    @Test
+    void throughputUnderConcurrentClients() throws Exception {
+        Long id = memberRepository.findMemberByUserName("user1").getId();
+        String[][] paths = {
+                {"sync  /members/{id}", "/members/" + id},
+                {"async /members/{id}", "/async/members/" + id},
+                {"sync  /members/dto", "/members/dto?page=3&size=10"},
+                {"async /members", "/async/members?page=3&size=10"},
+        };
+
+        System.out.printf("%-22s %8s %12s %8s%n", "endpoint", "clients", "req/s", "errors");
+        for (int clients : CLIENTS) {
+            for (String[] path : paths) {
+                load(path[1], clients, WARMUP);
+                long[] result = load(path[1], clients, DURATION);
+                System.out.printf("%-22s %8d %12.1f %8d%n",
+                        path[0], clients, result[0] / (double) DURATION.toSeconds(), result[1]);
+                assertThat(result[1]).isZero();
+            }
+        }
+    }
+
+    /**
+     * 반환값 : [성공 요청 수, 실패 요청 수]
+     */
+    private long[] load(String path, int clients, Duration duration) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path)).GET().build();
+        LongAdder ok = new LongAdder();
+        LongAdder errors = new LongAdder();
+        long deadline = System.nanoTime() + duration.toNanos();
+
+        ExecutorService pool = Executors.newFixedThreadPool(clients);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < clients; i++) {
+            futures.add(pool.submit(() -> {
+                while (System.nanoTime() < deadline) {
+                    try {
+                        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+                        (response.statusCode() == 200 ? ok : errors).increment();
+                    } catch (Exception e) {
+                        errors.increment();
+                    }
+                }
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        pool.shutdown();
+        pool.awaitTermination(10, TimeUnit.SECONDS);
+        return new long[]{ok.sum(), errors.sum()};
+    }
+}
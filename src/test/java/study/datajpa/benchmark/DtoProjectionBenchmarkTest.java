@@ -0,0 +1,112 @@
+package study.datajpa.benchmark;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.dto.MemberDto;
+import study.datajpa.repository.MemberRepository;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.lang.management.ManagementFactory;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * GET /members 의 엔티티 조회 후 Dto 변환 vs Dto 직접 조회 비교 (페이지당 지연시간, 할당 바이트)
+ * ./gradlew benchmark 로 실행
+ */
+@SpringBootTest
+@Tag("benchmark")
+class DtoProjectionBenchmarkTest {
+
+    private static final long ID_BASE = 20_000_000L;
+    private static final int TEAMS = 100;
+    private static final int MEMBERS = 10_000;
+    private static final int PAGE_SIZE = 100;
+    private static final int ITERATIONS = 200;
+
+    @Autowired MemberRepository memberRepository;
+    @Autowired PlatformTransactionManager transactionManager;
+    @PersistenceContext EntityManager em;
+
+    private TransactionTemplate tx;
+
+    @BeforeEach
+    void seed() {
+        tx = new TransactionTemplate(transactionManager);
+        tx.executeWithoutResult(status -> {
+            em.createNativeQuery("insert into team (id, name, created_date, updated_date) " +
+                            "select x + :base, concat('dtoBenchTeam', x), now(), now() from system_range(1, :teams)")
+                    .setParameter("base", ID_BASE)
+                    .setParameter("teams", TEAMS)
+                    .executeUpdate();
+            em.createNativeQuery("insert into member (id, age, user_name, team_id, created_date, last_modified_date) " +
+                            "select x + :base, 7000, concat('dtoBench', x), mod(x, :teams) + 1 + :base, now(), now() " +
+                            "from system_range(1, :members)")
+                    .setParameter("base", ID_BASE)
+                    .setParameter("teams", TEAMS)
+                    .setParameter("members", MEMBERS)
+                    .executeUpdate();
+        });
+    }
+
+    @AfterEach
+    void cleanUp() {
+        tx.executeWithoutResult(status -> {
+            em.createNativeQuery("delete from member where id > :base").setParameter("base", ID_BASE).executeUpdate();
+            em.createNativeQuery("delete from team where id > :base").setParameter("base", ID_BASE).executeUpdate();
+        });
+        em.getEntityManagerFactory().getCache().evictAll();
+    }
+
+    @Test
+    void entityVsProjection() {
+        Supplier<Page<MemberDto>> entityPath = () -> tx.execute(status ->
+                memberRepository.findAll(page()).map(member -> new MemberDto(member)));
+        Supplier<Page<MemberDto>> projectionPath = () -> tx.execute(status ->
+                memberRepository.findMemberDtoPage(page()));
+
+        // 워밍업
+        run(entityPath, ITERATIONS);
+        run(projectionPath, ITERATIONS);
+
+        long[] entity = run(entityPath, ITERATIONS);
+        long[] projection = run(projectionPath, ITERATIONS);
+
+        System.out.printf("%-12s %14s %16s%n", "path", "latency(us)", "alloc(bytes)");
+        System.out.printf("%-12s %14d %16d%n", "entity", entity[0] / 1000, entity[1]);
+        System.out.printf("%-12s %14d %16d%n", "projection", projection[0] / 1000, projection[1]);
+
+        assertThat(projection[1]).isLessThan(entity[1]);
+    }
+
+    private PageRequest page() {
+        return PageRequest.of(10, PAGE_SIZE, Sort.by("id"));
+    }
+
+    /**
+     * 반환값 : [페이지당 평균 지연시간(ns), 페이지당 평균 할당 바이트]
+     */
+    private long[] run(Supplier<Page<MemberDto>> path, int iterations) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            path.get();
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+        return new long[]{elapsed / iterations, allocated / iterations};
+    }
+}
@@ -0,0 +1,83 @@
+package study.datajpa.benchmark;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * MemberRepository.save 10만건의 초당 저장 건수 비교
+ * ./gradlew benchmark 로 실행
+ * - PerRow : increment_size = 1 (기존 hibernate_sequence 처럼 insert 마다 시퀀스 호출)
+ * - Pooled : increment_size = 50 (pooled-lo, 50건당 시퀀스 1번)
+ */
+@Tag("benchmark")
+abstract class IdAllocationBenchmarkTest {
+
+    private static final int ROWS = 100_000;
+    private static final int CHUNK = 1_000; // 영속성 컨텍스트가 계속 커지지 않도록 1000건마다 커밋
+
+    @Autowired MemberRepository memberRepository;
+    @Autowired PlatformTransactionManager transactionManager;
+    @PersistenceContext EntityManager em;
+
+    @Test
+    void save100k() {
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        long start = System.nanoTime();
+        for (int chunk = 0; chunk < ROWS / CHUNK; chunk++) {
+            int base = chunk * CHUNK;
+            tx.executeWithoutResult(status -> {
+                for (int i = 0; i < CHUNK; i++) {
+                    memberRepository.save(new Member("idBench" + (base + i), 9000));
+                }
+            });
+        }
+        long elapsed = System.nanoTime() - start;
+
+        long inserts = statistics.getEntityInsertCount();
+        long sequenceCalls = statistics.getPrepareStatementCount() - inserts;
+        statistics.setStatisticsEnabled(false);
+
+        System.out.printf("[%s] rows=%d, %.0f rows/sec, sequence calls=%d%n",
+                getClass().getSimpleName(), inserts, ROWS / (elapsed / 1_000_000_000.0), sequenceCalls);
+
+        tx.executeWithoutResult(status -> em.createQuery("delete from Member m where m.age = 9000").executeUpdate());
+
+        assertThat(inserts).isEqualTo(ROWS);
+        assertThat(sequenceCalls).isLessThanOrEqualTo(expectedMaxSequenceCalls());
+    }
+
+    abstract long expectedMaxSequenceCalls();
+
+    @SpringBootTest(properties = "spring.jpa.properties.datajpa.id.member_seq.increment_size=1")
+    static class PerRow extends IdAllocationBenchmarkTest {
+        @Override
+        long expectedMaxSequenceCalls() {
+            return ROWS;
+        }
+    }
+
+    @SpringBootTest(properties = "spring.jpa.properties.datajpa.id.member_seq.increment_size=50")
+    static class Pooled extends IdAllocationBenchmarkTest {
+        @Override
+        long expectedMaxSequenceCalls() {
+            return ROWS / 50 + 1;
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package study.datajpa.benchmark;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberJpaRepository;
+import study.datajpa.repository.support.KeysetCursor;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * offset 페이징 vs 키셋 페이징의 페이지 깊이별 조회 시간 비교
+ * ./gradlew benchmark 로 실행
+ * offset은 페이지가 뒤로 갈수록 느려지고, 키셋은 페이지 깊이와 상관없이 일정해야 함
+ */
+@SpringBootTest
+@Tag("benchmark")
+class KeysetPagingBenchmarkTest {
+
+    private static final int AGE = 5000; // 다른 테스트 데이터와 겹치지 않는 나이
+    private static final long ID_BASE = 10_000_000L; // 시퀀스로 생성되는 id와 겹치지 않게
+    private static final int ROWS = 100_000;
+    private static final int PAGE_SIZE = 20;
+    private static final int[] PAGES = {0, 10, 100, 1000, 4000};
+    private static final int REPEAT = 10;
+
+    @Autowired MemberJpaRepository memberJpaRepository;
+    @Autowired PlatformTransactionManager transactionManager;
+    @PersistenceContext EntityManager em;
+
+    @BeforeEach
+    void seed() {
+        // JPA로 10만건을 저장하면 너무 오래 걸리므로 H2의 system_range로 한번에 넣음
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                em.createNativeQuery("insert into member (id, age, user_name, created_date, last_modified_date) " +
+                                "select x + :base, :age, concat('bench', lpad(x, 7, '0')), now(), now() " +
+                                "from system_range(1, :rows)")
+                        .setParameter("base", ID_BASE)
+                        .setParameter("age", AGE)
+                        .setParameter("rows", ROWS)
+                        .executeUpdate());
+    }
+
+    @AfterEach
+    void cleanUp() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                em.createNativeQuery("delete from member where age = :age")
+                        .setParameter("age", AGE)
+                        .executeUpdate());
+    }
+
+    @Test
+    void pageLatencyByDepth() {
+        // 워밍업
+        for (int i = 0; i < REPEAT; i++) {
+            memberJpaRepository.findByPage(AGE, 0, PAGE_SIZE);
+            memberJpaRepository.findByPageKeyset(AGE, null, PAGE_SIZE);
+        }
+
+        System.out.printf("%8s %14s %14s%n", "page", "offset(us)", "keyset(us)");
+        long firstKeyset = 0;
+        long deepestKeyset = 0;
+        long deepestOffset = 0;
+        for (int page : PAGES) {
+            int offset = page * PAGE_SIZE;
+            String cursor = cursorBefore(offset);
+
+            long offsetNanos = measure(() -> memberJpaRepository.findByPage(AGE, offset, PAGE_SIZE));
+            long keysetNanos = measure(() -> memberJpaRepository.findByPageKeyset(AGE, cursor, PAGE_SIZE));
+            System.out.printf("%8d %14d %14d%n", page, offsetNanos / 1000, keysetNanos / 1000);
+
+            if (page == PAGES[0]) {
+                firstKeyset = keysetNanos;
+            }
+            deepestKeyset = keysetNanos;
+            deepestOffset = offsetNanos;
+        }
+        System.out.printf("keyset deepest/first = %.2f%n", (double) deepestKeyset / firstKeyset);
+
+        assertThat(deepestKeyset).isLessThan(deepestOffset);
+    }
+
+    /**
+     * offset 위치 직전 행으로 커서를 만든다. (앞 페이지들을 순서대로 넘겨온 것과 같은 커서)
+     */
+    private String cursorBefore(int offset) {
+        if (offset == 0) {
+            return null;
+        }
+        List<Member> prev = memberJpaRepository.findByPage(AGE, offset - 1, 1);
+        Member last = prev.get(0);
+        return new KeysetCursor(last.getUserName(), last.getId()).encode();
+    }
+
+    private long measure(Runnable query) {
+        long start = System.nanoTime();
+        for (int i = 0; i < REPEAT; i++) {
+            query.run();
+        }
+        return (System.nanoTime() - start) / REPEAT;
+    }
+}
@@ -0,0 +1,111 @@
+package study.datajpa.benchmark;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.repository.support.OptimisticRetryExecutor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 회원 나이 +1 수정을 32개 스레드가 동시에 할 때 비관적 락(findLockByUserName) vs 낙관적 락(@Version + 재시도) 처리량 비교
+ * 경합 정도를 바꿔가며 측정 (수정 대상 회원 수가 적을수록 같은 행에 몰림)
+ * 두 방식 모두 OptimisticRetryExecutor로 실행 (비관적 락의 락 타임아웃/데드락도 재시도)
+ * ./gradlew benchmark 로 실행
+ */
+@SpringBootTest(properties = {
+        "datajpa.optimistic-retry.max-attempts=100",
+        "spring.datasource.hikari.maximum-pool-size=32",
+        "spring.datasource.hikari.minimum-idle=32",
+        "logging.level.org.hibernate.SQL=info"
+})
+@Tag("benchmark")
+class LockContentionBenchmarkTest {
+
+    private static final int WRITERS = 32;
+    private static final int UPDATES_PER_WRITER = 200;
+    private static final int[] HOT_ROWS = {1, 8, 64};
+    private static final int AGE = 9000;
+
+    @Autowired MemberRepository memberRepository;
+    @Autowired OptimisticRetryExecutor retryExecutor;
+    @Autowired MeterRegistry meterRegistry;
+
+    private final List<Member> members = new ArrayList<>();
+
+    @BeforeEach
+    void seed() {
+        for (int i = 0; i < HOT_ROWS[HOT_ROWS.length - 1]; i++) {
+            members.add(new Member("contention" + i, AGE));
+        }
+        memberRepository.saveAllInBatch(members);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        memberRepository.deleteAllInBatch(members);
+    }
+
+    @Test
+    void pessimisticVsOptimistic() throws Exception {
+        System.out.printf("%-12s %8s %12s %10s%n", "mode", "rows", "updates/s", "conflicts");
+        for (int rows : HOT_ROWS) {
+            run("pessimistic", rows, name -> memberRepository.findLockByUserName(name));
+            run("optimistic", rows, name -> memberRepository.findOptimisticLockByUserName(name));
+        }
+    }
+
+    private void run(String mode, int rows, Function<String, List<Member>> finder) throws Exception {
+        int before = totalAge();
+        double conflictsBefore = meterRegistry.counter("repository.retry.conflicts").count();
+
+        ExecutorService pool = Executors.newFixedThreadPool(WRITERS);
+        List<Future<?>> futures = new ArrayList<>();
+        long start = System.nanoTime();
+        for (int w = 0; w < WRITERS; w++) {
+            futures.add(pool.submit(() -> {
+                for (int i = 0; i < UPDATES_PER_WRITER; i++) {
+                    String name = "contention" + ThreadLocalRandom.current().nextInt(rows);
+                    retryExecutor.run(() -> {
+                        Member member = finder.apply(name).get(0);
+                        member.setAge(member.getAge() + 1);
+                    });
+                }
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        long elapsed = System.nanoTime() - start;
+        pool.shutdown();
+
+        int updates = WRITERS * UPDATES_PER_WRITER;
+        double conflicts = meterRegistry.counter("repository.retry.conflicts").count() - conflictsBefore;
+        System.out.printf("%-12s %8d %12.1f %10.0f%n", mode, rows, updates / (elapsed / 1e9), conflicts);
+
+        assertThat(totalAge() - before).isEqualTo(updates); // lost update 없이 모두 반영
+    }
+
+    private int totalAge() {
+        int total = 0;
+        for (Member member : members) {
+            total += memberRepository.findById(member.getId()).get().getAge();
+        }
+        return total;
+    }
+}
@@ -0,0 +1,91 @@
+package study.datajpa.benchmark;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.repository.support.ParallelCountExecutor;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.Arrays;
+
+/**
+ * 페이지 조회 지연시간 비교 : content 쿼리 -> count 쿼리 순서대로 vs 동시에 (ParallelCountExecutor)
+ * count 쿼리가 age 조건으로 20만건을 훑도록 인덱스 없는 조건(age)으로 조회
+ * ./gradlew benchmark 로 실행
+ */
+@SpringBootTest(properties = "logging.level.org.hibernate.SQL=info")
+@Tag("benchmark")
+class ParallelCountBenchmarkTest {
+
+    private static final long ID_BASE = 40_000_000L;
+    private static final int ROWS = 200_000;
+    private static final int AGE = 9700;
+    private static final int ITERATIONS = 200;
+
+    @Autowired MemberRepository memberRepository;
+    @Autowired ParallelCountExecutor parallelCountExecutor;
+    @Autowired PlatformTransactionManager transactionManager;
+    @PersistenceContext EntityManager em;
+
+    private TransactionTemplate tx;
+
+    @BeforeEach
+    void seed() {
+        tx = new TransactionTemplate(transactionManager);
+        tx.executeWithoutResult(status ->
+                em.createNativeQuery("insert into member (id, version, age, user_name, created_date, last_modified_date) " +
+                                "select x + :base, 0, :age, concat('parallelBench', x), now(), now() " +
+                                "from system_range(1, :rows)")
+                        .setParameter("base", ID_BASE)
+                        .setParameter("age", AGE)
+                        .setParameter("rows", ROWS)
+                        .executeUpdate());
+    }
+
+    @AfterEach
+    void cleanUp() {
+        parallelCountExecutor.setEnabled(true);
+        tx.executeWithoutResult(status ->
+                em.createNativeQuery("delete from member where id > :base").setParameter("base", ID_BASE).executeUpdate());
+        em.getEntityManagerFactory().getCache().evictAll();
+    }
+
+    @Test
+    void sequentialVsParallel() {
+        // 워밍업
+        measure(false);
+        measure(true);
+
+        long[] sequential = measure(false);
+        long[] parallel = measure(true);
+
+        System.out.printf("%-12s %10s %10s%n", "mode", "p50(us)", "p99(us)");
+        System.out.printf("%-12s %10d %10d%n", "sequential", sequential[0] / 1000, sequential[1] / 1000);
+        System.out.printf("%-12s %10d %10d%n", "parallel", parallel[0] / 1000, parallel[1] / 1000);
+    }
+
+    /**
+     * 반환값 : [p50(ns), p99(ns)]
+     */
+    private long[] measure(boolean parallel) {
+        parallelCountExecutor.setEnabled(parallel);
+        long[] latencies = new long[ITERATIONS];
+        for (int i = 0; i < ITERATIONS; i++) {
+            PageRequest page = PageRequest.of(100 + i, 20, Sort.by("id"));
+            long start = System.nanoTime();
+            tx.executeWithoutResult(status -> memberRepository.findByAgeWithParallelCount(AGE, page));
+            latencies[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(latencies);
+        return new long[]{latencies[ITERATIONS / 2], latencies[ITERATIONS * 99 / 100]};
+    }
+}
@@ -0,0 +1,89 @@
+package study.datajpa.benchmark;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.Member;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 회원 10만명을 조회해서 영속성 컨텍스트에 들고 있을 때 힙 사용량 비교 (쓰기 트랜잭션 vs 읽기 전용 트랜잭션)
+ * 읽기 전용이면 엔티티마다 변경감지용 스냅샷(필드 값 배열)을 만들지 않으므로 그만큼 메모리가 줄어든다.
+ * ./gradlew benchmark 로 실행
+ */
+@SpringBootTest
+@Tag("benchmark")
+class ReadOnlyMemoryBenchmarkTest {
+
+    private static final long ID_BASE = 30_000_000L;
+    private static final int ROWS = 100_000;
+
+    @Autowired PlatformTransactionManager transactionManager;
+    @PersistenceContext EntityManager em;
+
+    @BeforeEach
+    void seed() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                em.createNativeQuery("insert into member (id, age, user_name, created_date, last_modified_date) " +
+                                "select x + :base, 8000, concat('readOnlyBench', x), now(), now() " +
+                                "from system_range(1, :rows)")
+                        .setParameter("base", ID_BASE)
+                        .setParameter("rows", ROWS)
+                        .executeUpdate());
+    }
+
+    @AfterEach
+    void cleanUp() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                em.createNativeQuery("delete from member where age = 8000").executeUpdate());
+        em.getEntityManagerFactory().getCache().evictAll();
+    }
+
+    @Test
+    void heapForManagedMembers() {
+        long readWrite = retainedHeap(false);
+        long readOnly = retainedHeap(true);
+
+        System.out.printf("read-write : %,d bytes%n", readWrite);
+        System.out.printf("read-only  : %,d bytes%n", readOnly);
+        System.out.printf("saved      : %,d bytes (%.1f%%)%n", readWrite - readOnly, 100.0 * (readWrite - readOnly) / readWrite);
+
+        assertThat(readOnly).isLessThan(readWrite);
+    }
+
+    /**
+     * 트랜잭션 안에서 회원을 모두 조회한 상태의 힙 사용량 - 조회 전 힙 사용량
+     */
+    private long retainedHeap(boolean readOnly) {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        tx.setReadOnly(readOnly);
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        return tx.execute(status -> {
+            long before = usedHeapAfterGc(memory);
+            List<Member> members = em.createQuery("select m from Member m where m.age = 8000", Member.class)
+                    .getResultList();
+            long after = usedHeapAfterGc(memory);
+            assertThat(members).hasSize(ROWS);
+            return after - before;
+        });
+    }
+
+    private long usedHeapAfterGc(MemoryMXBean memory) {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+}
@@ -0,0 +1,142 @@
+package study.datajpa.benchmark;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.repository.support.SingleFlightAspect;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 인기 회원에 조회가 몰릴 때(Zipfian 분포) single-flight 유무에 따른 DB 조회 수 비교
+ * 라운드마다 2차 캐시를 비워서 (캐시 만료, 벌크 수정 직후 등) 동시에 cache miss가 나는 상황을 만든다.
+ * ./gradlew benchmark 로 실행
+ */
+@SpringBootTest(properties = "logging.level.org.hibernate.SQL=info")
+@Tag("benchmark")
+class SingleFlightBenchmarkTest {
+
+    private static final int MEMBERS = 1000;
+    private static final double ZIPF_EXPONENT = 1.1;
+    private static final int CLIENTS = 64;
+    private static final int LOOKUPS_PER_ROUND = 20;
+    private static final int ROUNDS = 50;
+
+    @Autowired MemberRepository memberRepository;
+    @Autowired SingleFlightAspect singleFlightAspect;
+    @Autowired EntityManagerFactory entityManagerFactory;
+    @Autowired MeterRegistry meterRegistry;
+
+    private final List<Member> members = new ArrayList<>();
+    private double[] zipfCdf;
+
+    @BeforeEach
+    void seed() {
+        for (int i = 0; i < MEMBERS; i++) {
+            members.add(new Member("zipf" + i, 9500));
+        }
+        memberRepository.saveAllInBatch(members);
+
+        // 순위 k의 회원이 조회될 확률 ∝ 1 / k^s
+        zipfCdf = new double[MEMBERS];
+        double sum = 0;
+        for (int k = 1; k <= MEMBERS; k++) {
+            sum += 1 / Math.pow(k, ZIPF_EXPONENT);
+            zipfCdf[k - 1] = sum;
+        }
+        for (int k = 0; k < MEMBERS; k++) {
+            zipfCdf[k] /= sum;
+        }
+    }
+
+    @AfterEach
+    void cleanUp() {
+        singleFlightAspect.setEnabled(true);
+        memberRepository.deleteAllInBatch(members);
+    }
+
+    @Test
+    void databaseHitsSaved() throws Exception {
+        long without = run(false);
+        double followersBefore = followers();
+        long with = run(true);
+        double coalesced = followers() - followersBefore;
+        int lookups = CLIENTS * LOOKUPS_PER_ROUND * ROUNDS;
+
+        System.out.printf("lookups              : %,d%n", lookups);
+        System.out.printf("db hits (off)        : %,d%n", without);
+        System.out.printf("db hits (on)         : %,d%n", with);
+        System.out.printf("saved                : %,d (%.1f%%)%n", without - with, 100.0 * (without - with) / without);
+        System.out.printf("coalesced lookups    : %,.0f%n", coalesced);
+
+        // 캐시를 비운 직후 인기 회원에 동시 조회가 몰리므로 합쳐지는 조회가 있어야 하고, 그만큼 DB 조회가 줄어야 함
+        assertThat(coalesced).isPositive();
+        assertThat(with).isLessThan(without);
+        assertThat(without - with).isGreaterThanOrEqualTo(without / 10); // 10% 이상 절감
+    }
+
+    private double followers() {
+        return meterRegistry.find("repository.single_flight").tag("role", "follower").counters().stream()
+                .mapToDouble(counter -> counter.count())
+                .sum();
+    }
+
+    /**
+     * 반환값 : DB에 보낸 SQL 수
+     */
+    private long run(boolean singleFlight) throws Exception {
+        singleFlightAspect.setEnabled(singleFlight);
+        SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        Statistics statistics = sessionFactory.getStatistics();
+        statistics.clear();
+
+        ExecutorService pool = Executors.newFixedThreadPool(CLIENTS);
+        // 엔티티 region + 쿼리 캐시 region 모두 비움
+        CyclicBarrier barrier = new CyclicBarrier(CLIENTS, () -> sessionFactory.getCache().evictAllRegions());
+        List<Future<?>> futures = new ArrayList<>();
+        for (int c = 0; c < CLIENTS; c++) {
+            futures.add(pool.submit(() -> {
+                for (int round = 0; round < ROUNDS; round++) {
+                    barrier.await(); // 모든 클라이언트가 캐시를 비운 직후 동시에 시작
+                    for (int i = 0; i < LOOKUPS_PER_ROUND; i++) {
+                        Member member = members.get(nextZipf());
+                        if (i % 2 == 0) {
+                            memberRepository.findById(member.getId());
+                        } else {
+                            memberRepository.findByUserName(member.getUserName());
+                        }
+                    }
+                }
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        pool.shutdown();
+        return statistics.getPrepareStatementCount();
+    }
+
+    private int nextZipf() {
+        int index = Arrays.binarySearch(zipfCdf, ThreadLocalRandom.current().nextDouble());
+        return Math.min(index >= 0 ? index : -index - 1, MEMBERS - 1);
+    }
+}
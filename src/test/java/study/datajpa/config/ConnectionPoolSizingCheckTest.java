@@ -0,0 +1,46 @@
+package study.datajpa.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import study.datajpa.repository.MemberRepository;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 일부러 맞지 않는 크기로 설정해서 경고가 나오는지, hikari 풀 메트릭이 등록되는지 확인
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.hikari.maximum-pool-size=4",
+        "spring.datasource.hikari.minimum-idle=2",
+        "server.tomcat.threads.max=8",
+        "datajpa.pool.expected-concurrency=50"
+})
+class ConnectionPoolSizingCheckTest {
+
+    @Autowired ConnectionPoolSizingCheck connectionPoolSizingCheck;
+    @Autowired MemberRepository memberRepository;
+    @Autowired MeterRegistry meterRegistry;
+
+    @Test
+    void warnsWhenSizesDoNotFit() {
+        List<String> warnings = connectionPoolSizingCheck.check();
+
+        assertThat(warnings).anyMatch(warning -> warning.contains("maximum-pool-size(4) < datajpa.pool.expected-concurrency(50)"));
+        assertThat(warnings).anyMatch(warning -> warning.contains("minimum-idle(2)"));
+        assertThat(warnings).anyMatch(warning -> warning.contains("server.tomcat.threads.max(8)"));
+    }
+
+    @Test
+    void exportsPoolMetrics() {
+        memberRepository.count();
+
+        assertThat(meterRegistry.find("hikaricp.connections.active").tag("pool", "datajpa-primary").gauge()).isNotNull();
+        assertThat(meterRegistry.find("hikaricp.connections.idle").tag("pool", "datajpa-primary").gauge()).isNotNull();
+        assertThat(meterRegistry.find("hikaricp.connections.pending").tag("pool", "datajpa-primary").gauge()).isNotNull();
+        assertThat(meterRegistry.find("hikaricp.connections.acquire").tag("pool", "datajpa-primary").timer().count()).isPositive();
+    }
+}
@@ -0,0 +1,145 @@
+package study.datajpa.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+
+import javax.servlet.http.Cookie;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * H2 메모리 DB 두개를 primary, replica로 사용해서 라우팅 확인
+ * 두 DB는 복제되지 않으므로 replica에만 넣은 데이터가 보이면 replica에서 읽은 것
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:primary;DB_CLOSE_DELAY=-1",
+        "datajpa.datasource.routing.enabled=true",
+        "datajpa.datasource.routing.read-your-writes-window=10s",
+        "datajpa.datasource.routing.health-check-interval-ms=3600000",
+        "datajpa.datasource.replica.url=jdbc:h2:mem:replica;DB_CLOSE_DELAY=-1",
+        "datajpa.user-name-filter.enabled=false" // replica에 직접 넣은 회원을 이름으로 조회하므로
+})
+class ReplicaRoutingDataSourceTest {
+
+    @Autowired MemberRepository memberRepository;
+    @Autowired ReplicaRoutingDataSource replicaRoutingDataSource;
+    @Autowired HikariDataSource primaryDataSource;
+    @Autowired HikariDataSource replicaDataSource;
+    @Autowired PlatformTransactionManager transactionManager;
+    @Autowired ReadYourWritesFilter readYourWritesFilter;
+
+    private TransactionTemplate readOnlyTx;
+    private TransactionTemplate writeTx;
+
+    @BeforeEach
+    void copySchemaToReplica() {
+        // ddl-auto는 primary에만 적용되므로 primary 스키마를 replica에 그대로 만들어줌
+        JdbcTemplate replica = new JdbcTemplate(replicaDataSource);
+        replica.execute("drop all objects");
+        List<String> ddl = new JdbcTemplate(primaryDataSource).queryForList("script nodata", String.class);
+        for (String sql : ddl) {
+            if (!sql.startsWith("--")) {
+                replica.execute(sql);
+            }
+        }
+
+        readOnlyTx = new TransactionTemplate(transactionManager);
+        readOnlyTx.setReadOnly(true);
+        writeTx = new TransactionTemplate(transactionManager);
+        replicaRoutingDataSource.clearRecentWrite();
+    }
+
+    @Test
+    void readOnlyTransactionReadsReplica() {
+        //given
+        new JdbcTemplate(replicaDataSource).update(
+                "insert into member (id, age, user_name) values (900000001, 1, 'replicaOnly')");
+
+        //when
+        List<Member> fromReplica = readOnlyTx.execute(status -> memberRepository.findListByUserName("replicaOnly"));
+        List<Member> fromPrimary = writeTx.execute(status -> memberRepository.findListByUserName("replicaOnly"));
+
+        //then
+        assertThat(fromReplica).hasSize(1);
+        assertThat(fromPrimary).isEmpty();
+    }
+
+    @Test
+    void readYourWritesWithinThreadOutsideRequest() {
+        //given
+        writeTx.executeWithoutResult(status -> memberRepository.save(new Member("justWritten", 1)));
+
+        //when
+        // 요청 밖에서는 호출자가 없으므로 스레드 기준 : 쓰기 직후라 replica에는 아직 없지만, 같은 스레드는 window 동안 primary에서 읽음
+        List<Member> members = readOnlyTx.execute(status -> memberRepository.findListByUserName("justWritten"));
+
+        //then
+        assertThat(members).hasSize(1);
+    }
+
+    @Test
+    void readYourWritesFollowsClientAcrossThreads() throws Exception {
+        //given
+        MockHttpServletResponse writeResponse = new MockHttpServletResponse();
+        readYourWritesFilter.doFilter(new MockHttpServletRequest(), writeResponse, (req, res) ->
+                writeTx.executeWithoutResult(status -> memberRepository.save(new Member("writtenByClient", 1))));
+        Cookie lastWrite = writeResponse.getCookie(ReadYourWritesFilter.COOKIE_NAME);
+        assertThat(lastWrite).isNotNull();
+
+        //when
+        // 같은 클라이언트의 다음 요청은 다른 스레드에서 처리돼도 primary에서 읽음
+        List<Member> sameClient = CompletableFuture.supplyAsync(() -> readInRequest("writtenByClient", lastWrite)).get();
+        // 쓰기를 처리한 스레드를 다음에 쓰는 다른 클라이언트는 replica에서 읽음
+        List<Member> otherClient = readInRequest("writtenByClient", null);
+
+        //then
+        assertThat(sameClient).hasSize(1);
+        assertThat(otherClient).isEmpty();
+    }
+
+    @Test
+    @DirtiesContext
+    void fallbackToPrimaryWhenReplicaIsDown() {
+        //given
+        writeTx.executeWithoutResult(status -> memberRepository.save(new Member("primaryOnly", 1)));
+        replicaRoutingDataSource.clearRecentWrite();
+        replicaDataSource.close(); // replica 장애
+
+        //when
+        List<Member> members = readOnlyTx.execute(status -> memberRepository.findListByUserName("primaryOnly"));
+
+        //then
+        assertThat(members).hasSize(1);
+        assertThat(replicaRoutingDataSource.isReplicaHealthy()).isFalse();
+        assertThat(replicaRoutingDataSource.checkReplica()).isFalse();
+    }
+
+    private List<Member> readInRequest(String userName, Cookie cookie) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        if (cookie != null) {
+            request.setCookies(cookie);
+        }
+        AtomicReference<List<Member>> result = new AtomicReference<>();
+        try {
+            readYourWritesFilter.doFilter(request, new MockHttpServletResponse(), (req, res) ->
+                    result.set(readOnlyTx.execute(status -> memberRepository.findListByUserName(userName))));
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+        return result.get();
+    }
+}
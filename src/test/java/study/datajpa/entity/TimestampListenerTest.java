@@ -0,0 +1,92 @@
+package study.datajpa.entity;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.repository.TeamRepository;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Transactional
+class TimestampListenerTest {
+
+    static final CountingClock CLOCK = new CountingClock(LocalDateTime.of(2022, 9, 1, 12, 0));
+
+    @TestConfiguration
+    static class CountingClockConfig {
+        @Bean
+        @Primary
+        Clock countingClock() {
+            return CLOCK;
+        }
+    }
+
+    /**
+     * 읽을 때마다 1초씩 흐르는 시계 (엔티티마다 시계를 읽으면 시각이 서로 달라지고 reads가 늘어남)
+     */
+    static class CountingClock extends Clock {
+
+        private final ZoneId zone = ZoneId.systemDefault();
+        private final Instant start;
+        private final AtomicInteger reads = new AtomicInteger();
+
+        CountingClock(LocalDateTime start) {
+            this.start = start.atZone(zone).toInstant();
+        }
+
+        @Override
+        public Instant instant() {
+            return start.plusSeconds(reads.incrementAndGet());
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return zone;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    @Autowired MemberRepository memberRepository;
+    @Autowired TeamRepository teamRepository;
+    @PersistenceContext EntityManager em;
+
+    @Test
+    void sharedTimestampInTransaction() {
+        //given
+        CLOCK.reads.set(0);
+        Team team = teamRepository.save(new Team("timestampTeam")); // JpaBaseEntity
+        Member member = memberRepository.save(new Member("timestampMember", 10, team)); // BaseEntity
+
+        //when
+        member.setUserName("timestampMember2");
+        team.setName("timestampTeam2");
+        em.flush(); // @PreUpdate
+
+        //then
+        // 트랜잭션에서 시계를 한번만 읽고, 두 엔티티 모두 그 시각을 공유
+        assertThat(CLOCK.reads.get()).isEqualTo(1);
+        LocalDateTime now = team.getCreatedDate();
+        assertThat(team.getUpdatedDate()).isEqualTo(now);
+        assertThat(member.getCreatedDate()).isEqualTo(now);
+        assertThat(member.getLastModifiedDate()).isEqualTo(now);
+        assertThat(member.getCreatedBy()).isNotNull();
+    }
+}
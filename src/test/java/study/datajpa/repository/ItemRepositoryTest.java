@@ -1,16 +1,25 @@
 package study.datajpa.repository;
 
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import study.datajpa.entity.Item;
+import study.datajpa.repository.support.BulkWriteResult;
 
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.*;
 
 @SpringBootTest
 class ItemRepositoryTest {
 
     @Autowired ItemRepository itemRepository;
+    @Autowired EntityManagerFactory emf;
 
     @Test
     void save() {
@@ -18,6 +27,52 @@ class ItemRepositoryTest {
         itemRepository.save(item);
     }
 
+    @Test
+    void saveWithoutSelect() {
+        Statistics statistics = emf.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+
+        itemRepository.save(new Item("saveWithoutSelect"));
+
+        // isNew()가 true라서 merge(select + insert)가 아니라 persist(insert)만 실행
+        assertThat(statistics.getEntityLoadCount()).isEqualTo(0);
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(1);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void ingest() {
+        //given
+        // 250건 중 50건은 이미 저장되어 있음
+        List<Item> existing = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            existing.add(new Item("ingest" + i));
+        }
+        itemRepository.ingest(existing);
+
+        List<Item> items = new ArrayList<>();
+        for (int i = 0; i < 250; i++) {
+            items.add(new Item("ingest" + i));
+        }
+
+        Statistics statistics = emf.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+
+        //when
+        BulkWriteResult result = itemRepository.ingest(items);
+
+        //then
+        assertThat(result.getInserted()).isEqualTo(200);
+        assertThat(result.getSkipped()).isEqualTo(50);
+        assertThat(statistics.getEntityLoadCount()).isEqualTo(0); // 건마다 select 하지 않음
+        assertThat(statistics.getQueryExecutionCount()).isEqualTo(3); // 존재 여부 확인 in 쿼리 (100, 100, 50)
+        assertThat(result.getBatches()).isEqualTo(3); // chunk마다 insert 배치 1번 (50, 100, 50)
+        assertThat(result.getBatchedRows()).isEqualTo(200);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3 + 3);
+    }
+
     /*
     * > 참고: JPA 식별자 생성 전략이 @GenerateValue 면 save() 호출 시점에 식별자가 없으므로 새로운
 엔티티로 인식해서 정상 동작한다. 그런데 JPA 식별자 생성 전략이 @Id 만 사용해서 직접 할당이면 이미
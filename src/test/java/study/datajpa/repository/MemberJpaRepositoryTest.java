@@ -6,7 +6,11 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.annotation.Rollback;
 import org.springframework.transaction.annotation.Transactional;
 import study.datajpa.entity.Member;
+import study.datajpa.repository.support.KeysetWindow;
 
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -16,6 +20,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 class MemberJpaRepositoryTest {
 
     @Autowired private MemberJpaRepository memberJpaRepository;
+    @PersistenceContext private EntityManager em;
 
     @Test
     void saveMember() {
@@ -98,6 +103,44 @@ class MemberJpaRepositoryTest {
         assertThat(totalCount).isEqualTo(5);
     }
 
+    @Test
+    void keysetPaging() {
+        //given
+        memberJpaRepository.save(new Member("Mamber1", 1061));
+        memberJpaRepository.save(new Member("Mamber2", 1061));
+        memberJpaRepository.save(new Member("Mamber3", 1061));
+        memberJpaRepository.save(new Member("Mamber4", 1061));
+        memberJpaRepository.save(new Member("Mamber5", 1061));
+
+        //when
+        KeysetWindow<Member> first = memberJpaRepository.findByPageKeyset(1061, null, 3);
+        KeysetWindow<Member> second = memberJpaRepository.findByPageKeyset(1061, first.getNextCursor(), 3);
+
+        //then
+        assertThat(first.getContent()).extracting("userName").containsExactly("Mamber5", "Mamber4", "Mamber3");
+        assertThat(first.isHasNext()).isTrue();
+        assertThat(second.getContent()).extracting("userName").containsExactly("Mamber2", "Mamber1");
+        assertThat(second.isHasNext()).isFalse();
+        assertThat(second.getNextCursor()).isNull();
+    }
+
+    @Test
+    void scrollAll() {
+        //given
+        memberJpaRepository.save(new Member("Scroll1", 1062));
+        memberJpaRepository.save(new Member("Scroll2", 1062));
+        memberJpaRepository.save(new Member("Scroll3", 1062));
+
+        //when
+        List<Member> scrolled = new ArrayList<>();
+        long count = memberJpaRepository.scrollAll(2, scrolled::add);
+
+        //then
+        assertThat(count).isEqualTo(scrolled.size());
+        assertThat(scrolled).extracting("userName").contains("Scroll1", "Scroll2", "Scroll3");
+        assertThat(em.contains(scrolled.get(0))).isFalse(); // 다 읽은 엔티티는 영속성 컨텍스트에서 비워짐
+    }
+
     @Test
     @Rollback(value = false)
     void bulkUpdate() {
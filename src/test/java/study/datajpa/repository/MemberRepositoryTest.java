@@ -1,5 +1,8 @@
 package study.datajpa.repository;
 
+import org.hibernate.Session;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
@@ -12,10 +15,14 @@ import org.springframework.transaction.annotation.Transactional;
 import study.datajpa.dto.MemberDto;
 import study.datajpa.entity.Member;
 import study.datajpa.entity.Team;
+import study.datajpa.repository.support.BulkWriteResult;
+import study.datajpa.repository.support.KeysetWindow;
+import study.datajpa.repository.support.MemberCountCache;
 
 import javax.persistence.EntityManager;
 import javax.persistence.PersistenceContext;
 import java.util.*;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -29,6 +36,8 @@ class MemberRepositoryTest {
     MemberRepository memberRepository; // 인터페이스를 주입받음
     @Autowired
     TeamRepository teamRepository;
+    @Autowired
+    MemberCountCache memberCountCache;
 
     @PersistenceContext
     EntityManager em;
@@ -162,6 +171,25 @@ class MemberRepositoryTest {
         }
     }
 
+    @Test
+    void findMemberDtoPage() {
+        //given
+        Team team = teamRepository.save(new Team("dtoTeam"));
+        memberRepository.save(new Member("dtoMember1", 10, team));
+        memberRepository.save(new Member("dtoMember2", 10)); // 팀 없는 회원
+        em.flush();
+        em.clear();
+
+        //when
+        Page<MemberDto> page = memberRepository.findMemberDtoPage(PageRequest.of(0, 1000, Sort.by("id")));
+
+        //then
+        assertThat(page.getContent()).extracting("name").contains("dtoMember1", "dtoMember2");
+        MemberDto dto1 = page.getContent().stream().filter(d -> d.getName().equals("dtoMember1")).findFirst().get();
+        assertThat(dto1.getTeamName()).isEqualTo("dtoTeam");
+        assertThat(em.unwrap(Session.class).getStatistics().getEntityCount()).isEqualTo(0); // 영속성 컨텍스트에 엔티티 없음
+    }
+
     @Test
     void findByNames() {
         //given
@@ -176,6 +204,54 @@ class MemberRepositoryTest {
         }
     }
 
+    @Test
+    void findByNamesInChunks() {
+        //given
+        memberRepository.save(new Member("inListA", 10));
+        memberRepository.save(new Member("inListB", 10));
+        em.flush();
+
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < 3000; i++) {
+            names.add("inListMissing" + i);
+        }
+        names.addAll(Arrays.asList("inListA", "inListB", "inListA")); // 중복은 한번만 조회
+
+        Statistics statistics = em.unwrap(Session.class).getSessionFactory().getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+
+        //when
+        List<Member> result = memberRepository.findByNames(names);
+
+        //then
+        assertThat(result).extracting("userName").containsExactlyInAnyOrder("inListA", "inListB");
+        assertThat(statistics.getQueryExecutionCount()).isEqualTo(3); // 3002개 -> 1024개씩 3번
+    }
+
+    @Test
+    void inClauseParameterPadding() {
+        //given
+        List<String> names = Arrays.asList("pad1", "pad2", "pad3", "pad4", "pad5", "pad6", "pad7", "pad8");
+        SessionFactoryImplementor sessionFactory = em.unwrap(Session.class).getSessionFactory().unwrap(SessionFactoryImplementor.class);
+        Statistics statistics = sessionFactory.getStatistics();
+        statistics.setStatisticsEnabled(true);
+        sessionFactory.getQueryPlanCache().cleanup(); // 다른 테스트가 만든 플랜이 남아있으면 첫 호출도 캐시 hit
+        long before = statistics.getQueryPlanCacheMissCount();
+        memberRepository.findByNames(names.subList(0, 5)); // 파라미터 5개 -> 8개로 패딩
+        long misses = statistics.getQueryPlanCacheMissCount();
+        assertThat(misses).isGreaterThan(before); // 8개짜리 플랜을 새로 만듦
+
+        //when
+        memberRepository.findByNames(names.subList(0, 6));
+        memberRepository.findByNames(names.subList(0, 7));
+        memberRepository.findByNames(names);
+
+        //then
+        // 6, 7, 8개 모두 in (?, ?, ?, ?, ?, ?, ?, ?) 같은 쿼리라 새 플랜을 만들지 않음
+        assertThat(statistics.getQueryPlanCacheMissCount()).isEqualTo(misses);
+    }
+
     @Test
     void returnType() {
         //given
@@ -245,6 +321,67 @@ class MemberRepositoryTest {
         assertThat(page.hasNext()).isTrue();
     }
 
+    @Test
+    void keysetPaging() {
+        //given
+        // userName이 같은 회원이 있어도 id로 순서가 확정되므로 페이지 경계에서 빠지거나 중복되지 않아야 함
+        memberRepository.save(new Member("Mamber1", 1071));
+        memberRepository.save(new Member("Mamber2", 1071));
+        memberRepository.save(new Member("Mamber2", 1071));
+        memberRepository.save(new Member("Mamber3", 1071));
+        memberRepository.save(new Member("Mamber4", 1072));
+
+        //when
+        KeysetWindow<Member> first = memberRepository.findByAgeKeyset(1071, null, 2);
+        KeysetWindow<Member> second = memberRepository.findByAgeKeyset(1071, first.getNextCursor(), 2);
+
+        //then
+        assertThat(first.getContent()).extracting("userName").containsExactly("Mamber3", "Mamber2");
+        assertThat(first.isHasNext()).isTrue();
+        assertThat(second.getContent()).extracting("userName").containsExactly("Mamber2", "Mamber1");
+        assertThat(second.isHasNext()).isFalse();
+        assertThat(second.getContent().get(0).getId()).isLessThan(first.getContent().get(1).getId());
+    }
+
+    @Test
+    void cachedCountPaging() {
+        //given
+        memberRepository.save(new Member("Member1", 10));
+        memberRepository.save(new Member("Member2", 10));
+        memberRepository.save(new Member("Member3", 10));
+        em.flush(); // insert 시점에 count 캐시 무효화
+
+        //when
+        Page<Member> first = memberRepository.findAllWithCachedCount(PageRequest.of(0, 2));
+        double avoided = memberCountCache.avoidedCount();
+        Page<Member> second = memberRepository.findAllWithCachedCount(PageRequest.of(1, 2));
+
+        //then
+        assertThat(second.getTotalElements()).isEqualTo(first.getTotalElements());
+        assertThat(memberCountCache.avoidedCount()).isEqualTo(avoided + 1); // 두번째 페이지는 count 쿼리 생략
+
+        // 회원이 추가되면 캐시가 무효화되어 다시 count 쿼리 실행
+        memberRepository.save(new Member("Member4", 10));
+        em.flush();
+        Page<Member> third = memberRepository.findAllWithCachedCount(PageRequest.of(0, 2));
+        assertThat(third.getTotalElements()).isEqualTo(first.getTotalElements() + 1);
+    }
+
+    @Test
+    void sliceWithoutCount() {
+        //given
+        memberRepository.save(new Member("Member1", 10));
+        memberRepository.save(new Member("Member2", 10));
+        memberRepository.save(new Member("Member3", 10));
+
+        //when
+        Slice<Member> slice = memberRepository.findSliceBy(PageRequest.of(0, 2));
+
+        //then
+        assertThat(slice.getContent().size()).isEqualTo(2);
+        assertThat(slice.hasNext()).isTrue();
+    }
+
     @Test
     @Rollback(value = false)
     void bulkUpdate() {
@@ -314,6 +451,127 @@ class MemberRepositoryTest {
         //then
     }
 
+    @Test
+    void saveAllInBatch() {
+        //given
+        List<Member> members = new ArrayList<>();
+        for (int i = 0; i < 250; i++) {
+            members.add(new Member("bulkMember" + i, 30));
+        }
+
+        //when
+        BulkWriteResult insertResult = memberRepository.saveAllInBatch(members);
+        for (Member member : members) {
+            member.setAge(31);
+        }
+        BulkWriteResult updateResult = memberRepository.saveAllInBatch(members);
+
+        //then
+        assertThat(insertResult.getInserted()).isEqualTo(250);
+        assertThat(insertResult.getBatchedRows()).isEqualTo(250);
+        assertThat(insertResult.getBatches()).isEqualTo(3); // batch_size 100 -> 100, 100, 50
+        assertThat(updateResult.getUpdated()).isEqualTo(250);
+        assertThat(updateResult.getBatches()).isEqualTo(3);
+
+        Member findMember = memberRepository.findById(members.get(0).getId()).get();
+        assertThat(findMember.getAge()).isEqualTo(31);
+        assertThat(findMember.getCreatedDate()).isNotNull(); // 배치로 저장해도 auditing 값은 채워짐
+        assertThat(findMember.getLastModifiedBy()).isNotNull();
+    }
+
+    @Test
+    void streamAll() {
+        //given
+        memberRepository.save(new Member("Stream1", 10));
+        memberRepository.save(new Member("Stream2", 10));
+        em.flush();
+        em.clear();
+
+        //when
+        List<String> names = new ArrayList<>();
+        try (Stream<Member> stream = memberRepository.streamAll()) { // 사용 후 커서를 닫아야 함
+            stream.forEach(member -> {
+                names.add(member.getUserName());
+                em.detach(member); // 다 쓴 엔티티는 영속성 컨텍스트에서 제거
+            });
+        }
+
+        //then
+        assertThat(names).contains("Stream1", "Stream2");
+    }
+
+    @Test
+    void batchFetch() {
+        //given
+        // 팀 100개, 회원 1000명 (팀당 10명)
+        List<Long> teamIds = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            Team team = teamRepository.save(new Team("batchTeam" + i));
+            teamIds.add(team.getId());
+        }
+        List<Team> teams = teamRepository.findAllById(teamIds);
+        for (int i = 0; i < 1000; i++) {
+            memberRepository.save(new Member("batchMember", i, teams.get(i % 100)));
+        }
+        em.flush();
+        em.clear();
+
+        Statistics statistics = em.unwrap(Session.class).getSessionFactory().getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+
+        //when
+        // 회원 조회 1번 + 팀 프록시 초기화 (100개를 in 쿼리 1번으로)
+        List<Member> members = memberRepository.findByUserName("batchMember");
+        for (Member member : members) {
+            member.getTeam().getName();
+        }
+        long memberToTeam = statistics.getPrepareStatementCount();
+
+        em.clear();
+        statistics.clear();
+
+        // 팀 조회 1번 + member 컬렉션 초기화 (100개 컬렉션을 in 쿼리 1번으로)
+        List<Team> findTeams = teamRepository.findAllById(teamIds);
+        int memberCount = 0;
+        for (Team team : findTeams) {
+            memberCount += team.getMember().size();
+        }
+        long teamToMembers = statistics.getPrepareStatementCount();
+
+        //then
+        assertThat(members.size()).isEqualTo(1000);
+        assertThat(memberToTeam).isEqualTo(2); // 배치 페치가 없으면 1 + 100
+        assertThat(memberCount).isEqualTo(1000);
+        assertThat(teamToMembers).isEqualTo(2);
+    }
+
+    @Test
+    void secondLevelCache() {
+        //given
+        Member member = memberRepository.save(new Member("cacheMember", 1080));
+        em.flush();
+        em.clear();
+
+        Statistics statistics = em.unwrap(Session.class).getSessionFactory().getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+
+        //when
+        memberRepository.findById(member.getId()); // 2차 캐시에 없으므로 DB 조회 후 캐시에 저장
+        em.clear(); // 1차 캐시를 비워도
+        memberRepository.findById(member.getId()); // 2차 캐시에서 조회 (select 없음)
+
+        //then
+        assertThat(statistics.getSecondLevelCacheHitCount()).isEqualTo(1);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+
+        // 벌크 연산은 2차 캐시를 거치지 않으므로 하이버네이트가 Member region을 비워서 변경된 값이 조회되어야 함
+        memberRepository.bulkAgePlus(1080);
+        Member findMember = memberRepository.findById(member.getId()).get();
+        assertThat(findMember.getAge()).isEqualTo(1081);
+    }
+
     @Test
     void queryHint() {
         //given
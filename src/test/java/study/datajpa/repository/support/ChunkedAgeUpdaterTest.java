@@ -0,0 +1,75 @@
+package study.datajpa.repository.support;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 청크마다 커밋되므로 테스트 트랜잭션(@Transactional) 없이 실행
+ */
+@SpringBootTest
+class ChunkedAgeUpdaterTest {
+
+    @Autowired ChunkedAgeUpdater chunkedAgeUpdater;
+    @Autowired MemberRepository memberRepository;
+
+    private final List<Member> members = new ArrayList<>();
+
+    @AfterEach
+    void cleanUp() {
+        memberRepository.deleteAllInBatch(members);
+    }
+
+    @Test
+    void bulkAgePlusInChunks() {
+        //given
+        for (int i = 0; i < 10; i++) {
+            members.add(new Member("chunkMember" + i, 3000 + i));
+        }
+        memberRepository.saveAllInBatch(members);
+
+        //when
+        ChunkedUpdateResult result = chunkedAgeUpdater.bulkAgePlus(3005, null, 2);
+
+        //then
+        assertThat(result.getUpdatedRows()).isEqualTo(5); // 3005 ~ 3009
+        assertThat(result.getChunks()).isEqualTo(3); // id 5개 구간을 2개씩 -> 3번 커밋
+        assertThat(memberRepository.findById(members.get(4).getId()).get().getAge()).isEqualTo(3004);
+        assertThat(memberRepository.findById(members.get(5).getId()).get().getAge()).isEqualTo(3006);
+    }
+
+    @Test
+    void resumeAfterLastProcessedId() {
+        //given
+        for (int i = 0; i < 6; i++) {
+            members.add(new Member("resumeMember" + i, 4000));
+        }
+        memberRepository.saveAllInBatch(members);
+
+        //when
+        // 앞의 3명까지 처리하고 실패했다고 가정하고 이어서 실행
+        Long lastProcessedId = members.get(2).getId();
+        ChunkedUpdateResult result = chunkedAgeUpdater.bulkAgePlus(4000, lastProcessedId, 2);
+
+        //then
+        assertThat(result.getUpdatedRows()).isEqualTo(3);
+        assertThat(result.getLastProcessedId()).isEqualTo(members.get(5).getId());
+        assertThat(memberRepository.findById(members.get(2).getId()).get().getAge()).isEqualTo(4000);
+        assertThat(memberRepository.findById(members.get(3).getId()).get().getAge()).isEqualTo(4001);
+    }
+
+    @Test
+    void rejectsNonPositiveChunkSize() {
+        assertThatThrownBy(() -> chunkedAgeUpdater.bulkAgePlus(5000, null, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,31 @@
+package study.datajpa.repository.support;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class KeysetCursorTest {
+
+    @Test
+    void encodeDecode() {
+        KeysetCursor cursor = KeysetCursor.decode(new KeysetCursor("a:b", 42L).encode());
+
+        assertThat(cursor.getUserName()).isEqualTo("a:b"); // userName의 ':'도 그대로 복원
+        assertThat(cursor.getId()).isEqualTo(42L);
+    }
+
+    @Test
+    void rejectsNullKeys() {
+        assertThatThrownBy(() -> new KeysetCursor(null, 1L)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new KeysetCursor("member", null)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void windowRejectsNonPositiveSize() {
+        assertThatThrownBy(() -> KeysetWindow.of(List.of("a"), 0, row -> new KeysetCursor(row, 1L)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,82 @@
+package study.datajpa.repository.support;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 재시도마다 커밋되므로 테스트 트랜잭션(@Transactional) 없이 실행
+ */
+@SpringBootTest
+class OptimisticRetryExecutorTest {
+
+    @Autowired OptimisticRetryExecutor retryExecutor;
+    @Autowired MemberRepository memberRepository;
+    @Autowired PlatformTransactionManager transactionManager;
+
+    private Member member;
+
+    @AfterEach
+    void cleanUp() {
+        memberRepository.deleteById(member.getId());
+    }
+
+    @Test
+    void retryOnConflict() {
+        //given
+        member = memberRepository.save(new Member("optimisticMember", 5000));
+        AtomicInteger attempts = new AtomicInteger();
+
+        //when
+        retryExecutor.run(() -> {
+            Member found = memberRepository.findById(member.getId()).get();
+            if (attempts.incrementAndGet() == 1) {
+                concurrentAgePlus(); // 첫 시도 중에 다른 트랜잭션이 먼저 수정하고 커밋
+            }
+            found.setAge(found.getAge() + 1); // 첫 시도는 커밋 시 version 불일치로 실패
+        });
+
+        //then
+        Member result = memberRepository.findById(member.getId()).get();
+        assertThat(attempts.get()).isEqualTo(2);
+        assertThat(result.getAge()).isEqualTo(5002); // 두 수정 모두 반영 (lost update 없음)
+        assertThat(result.getVersion()).isEqualTo(2);
+    }
+
+    @Test
+    void giveUpAfterMaxAttempts() {
+        //given
+        member = memberRepository.save(new Member("optimisticMember2", 5000));
+        AtomicInteger attempts = new AtomicInteger();
+
+        //when, then
+        assertThatThrownBy(() -> retryExecutor.run(() -> {
+            attempts.incrementAndGet();
+            Member found = memberRepository.findById(member.getId()).get();
+            concurrentAgePlus(); // 매번 충돌
+            found.setAge(found.getAge() + 1);
+        })).isInstanceOf(ObjectOptimisticLockingFailureException.class);
+        assertThat(attempts.get()).isEqualTo(5); // datajpa.optimistic-retry.max-attempts
+    }
+
+    private void concurrentAgePlus() {
+        TransactionTemplate other = new TransactionTemplate(transactionManager);
+        other.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        other.executeWithoutResult(status -> {
+            Member found = memberRepository.findById(member.getId()).get();
+            found.setAge(found.getAge() + 1);
+        });
+    }
+}
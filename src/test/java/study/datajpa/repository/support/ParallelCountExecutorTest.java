@@ -0,0 +1,111 @@
+package study.datajpa.repository.support;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.PlatformTransactionManager;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * count 쿼리는 별도 트랜잭션에서 실행되므로 커밋된 데이터로 확인 (테스트 트랜잭션 없이)
+ */
+@SpringBootTest
+class ParallelCountExecutorTest {
+
+    @Autowired ParallelCountExecutor parallelCountExecutor;
+    @Autowired MemberRepository memberRepository;
+    @Autowired PlatformTransactionManager transactionManager;
+
+    private final List<Member> members = new ArrayList<>();
+
+    @AfterEach
+    void cleanUp() {
+        memberRepository.deleteAllInBatch(members);
+    }
+
+    @Test
+    void findByAgeWithParallelCount() {
+        //given
+        for (int i = 0; i < 25; i++) {
+            members.add(new Member("parallelCount" + i, 1090));
+        }
+        memberRepository.saveAllInBatch(members);
+
+        //when
+        Page<Member> page = memberRepository.findByAgeWithParallelCount(1090, PageRequest.of(1, 10, Sort.by("id")));
+
+        //then
+        assertThat(page.getContent()).hasSize(10);
+        assertThat(page.getContent().get(0).getId()).isEqualTo(members.get(10).getId());
+        assertThat(page.getTotalElements()).isEqualTo(25);
+        assertThat(page.getTotalPages()).isEqualTo(3);
+
+        // 순서대로 실행하는 findByAge와 같은 결과
+        Page<Member> sequential = memberRepository.findByAge(1090, PageRequest.of(1, 10, Sort.by("id")));
+        assertThat(page.getContent()).extracting(Member::getId)
+                .containsExactlyElementsOf(sequential.map(Member::getId).getContent());
+        assertThat(page.getTotalElements()).isEqualTo(sequential.getTotalElements());
+    }
+
+    @Test
+    void countRunsOnAnotherThread() {
+        AtomicReference<String> countThread = new AtomicReference<>();
+
+        Page<String> page = parallelCountExecutor.page(PageRequest.of(0, 2),
+                () -> Arrays.asList("a", "b"),
+                () -> {
+                    countThread.set(Thread.currentThread().getName());
+                    return 5L;
+                });
+
+        assertThat(page.getTotalElements()).isEqualTo(5);
+        assertThat(countThread.get()).startsWith("page-count-");
+    }
+
+    @Test
+    void countRunsOnCallerWhenExecutorRejects() {
+        //given
+        ParallelCountExecutor busy = new ParallelCountExecutor(task -> {
+            throw new RejectedExecutionException("all count threads busy");
+        }, transactionManager, Map.of(), true);
+        AtomicReference<String> countThread = new AtomicReference<>();
+
+        //when
+        Page<String> page = busy.page(PageRequest.of(0, 2),
+                () -> Arrays.asList("a", "b"),
+                () -> {
+                    countThread.set(Thread.currentThread().getName());
+                    return 5L;
+                });
+
+        //then
+        assertThat(page.getTotalElements()).isEqualTo(5);
+        assertThat(countThread.get()).isEqualTo(Thread.currentThread().getName()); // 커넥션을 더 기다리지 않고 순서대로
+    }
+
+    @Test
+    void countExceptionPropagates() {
+        assertThatThrownBy(() -> parallelCountExecutor.page(PageRequest.of(0, 2),
+                () -> Arrays.asList("a", "b"),
+                () -> {
+                    throw new IllegalStateException("count failed");
+                }))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("count failed");
+    }
+}
@@ -0,0 +1,87 @@
+package study.datajpa.repository.support;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.repository.MemberJpaRepository;
+import study.datajpa.repository.MemberRepository;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "datajpa.query-plan.collect-executed-sql=true")
+@Transactional
+class QueryPlanAnalyzerTest {
+
+    @Autowired QueryPlanAnalyzer queryPlanAnalyzer;
+    @Autowired MemberJpaRepository memberJpaRepository;
+    @Autowired MemberRepository memberRepository;
+
+    @Test
+    void derivedQueryIsAnalyzedFromExecutedSql() {
+        //given
+        // 메서드 이름 쿼리는 하이버네이트가 실제로 실행한 SQL로 분석
+        assertThat(queryPlanAnalyzer.analyzeRepositories())
+                .noneMatch(report -> report.getSource().equals("MemberRepository.findByUserNameAndAgeGreaterThan"));
+        memberRepository.findByUserNameAndAgeGreaterThan("member1", 10);
+
+        //when
+        List<QueryPlanReport> reports = queryPlanAnalyzer.analyzeExecuted();
+
+        //then
+        assertThat(reports)
+                .filteredOn(report -> report.getSql().endsWith("where member0_.user_name=? and member0_.age>?"))
+                .isNotEmpty()
+                .allMatch(report -> report.getError() == null && !report.isTableScan())
+                .allMatch(report -> report.getIndexes().stream().anyMatch(index -> index.startsWith("IDX_MEMBER_USER_NAME")));
+    }
+
+    @Test
+    void joinUsesTeamIndexOrPrimaryKey() {
+        QueryPlanReport report = find(queryPlanAnalyzer.analyzeRepositories(), "MemberRepository.findMemberDto");
+
+        assertThat(report.getError()).isNull();
+        assertThat(report.getTableScans()).hasSize(1); // 조건이 없으니 한쪽 테이블은 전체를 읽고, 다른 쪽은 인덱스로 join
+        assertThat(report.getIndexes()).isNotEmpty();
+    }
+
+    @Test
+    void flagsTableScan() {
+        //given
+        memberRepository.findSliceBy(PageRequest.of(0, 10)); // 조건 없이 전체에서 limit
+
+        //when
+        List<QueryPlanReport> reports = queryPlanAnalyzer.analyzeExecuted();
+
+        //then
+        assertThat(reports)
+                .filteredOn(report -> report.getSql().startsWith("select member0_.") && report.getSql().contains(" from member member0_ limit ?"))
+                .isNotEmpty()
+                .allMatch(report -> report.getTableScans().equals(List.of("MEMBER")));
+    }
+
+    @Test
+    void explainsExecutedSql() {
+        //given
+        memberJpaRepository.totalCount(5100); // em.createQuery라 리파지토리 메서드 분석으로는 알 수 없는 쿼리
+
+        //when
+        List<QueryPlanReport> reports = queryPlanAnalyzer.analyzeExecuted();
+
+        //then
+        assertThat(reports)
+                .filteredOn(report -> report.getSql().startsWith("select count(") && report.getSql().endsWith("where member0_.age=?"))
+                .isNotEmpty()
+                .allMatch(report -> report.getIndexes().contains("IDX_MEMBER_AGE_USER_NAME_ID"));
+    }
+
+    private QueryPlanReport find(List<QueryPlanReport> reports, String source) {
+        return reports.stream()
+                .filter(report -> report.getSource().equals(source))
+                .findFirst()
+                .orElseThrow();
+    }
+}
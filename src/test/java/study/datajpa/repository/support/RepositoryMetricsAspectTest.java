@@ -0,0 +1,70 @@
+package study.datajpa.repository.support;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.repository.TeamRepository;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Transactional
+class RepositoryMetricsAspectTest {
+
+    @Autowired MemberRepository memberRepository;
+    @Autowired TeamRepository teamRepository;
+    @Autowired JdbcStatementStats statementStats;
+    @Autowired MeterRegistry meterRegistry;
+    @PersistenceContext EntityManager em;
+
+    @Test
+    void recordsRepositoryMethodMetrics() {
+        //given
+        memberRepository.save(new Member("metricsA", 10));
+        memberRepository.save(new Member("metricsB", 10));
+        em.flush();
+
+        //when
+        memberRepository.findByNames(Arrays.asList("metricsA", "metricsB"));
+
+        //then
+        Timer timer = meterRegistry.find("repository.method")
+                .tags("repository", "MemberRepository", "method", "findByNames")
+                .timer();
+        assertThat(timer).isNotNull();
+        assertThat(timer.count()).isGreaterThanOrEqualTo(1);
+        assertThat(meterRegistry.find("repository.method.rows")
+                .tags("repository", "MemberRepository", "method", "findByNames")
+                .summary().max()).isGreaterThanOrEqualTo(2);
+    }
+
+    @Test
+    void fetchJoinIssuesOneStatement() {
+        //given
+        Team team = teamRepository.save(new Team("metricsTeam"));
+        memberRepository.save(new Member("metricsMember1", 10, team));
+        memberRepository.save(new Member("metricsMember2", 10, team));
+        em.flush();
+        em.clear();
+
+        //when
+        StatementCount count = statementStats.measure(() -> {
+            List<Member> members = memberRepository.findMemberFetchJoin();
+            members.forEach(member -> member.getTeam().getName()); // 페치조인이라 추가 select 없음
+        });
+
+        //then
+        assertThat(count.getStatements()).isLessThanOrEqualTo(1);
+    }
+}
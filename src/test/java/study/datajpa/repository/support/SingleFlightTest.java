@@ -0,0 +1,104 @@
+package study.datajpa.repository.support;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SingleFlightTest {
+
+    private static final int CALLERS = 8;
+
+    private final SingleFlight<String, String> singleFlight = new SingleFlight<>();
+    private final ExecutorService pool = Executors.newFixedThreadPool(CALLERS);
+
+    @Test
+    void concurrentCallsShareOneLoad() throws Exception {
+        //given
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+
+        //when
+        List<Future<SingleFlight.Flight<String>>> futures = callConcurrently("member1", () -> {
+            loads.incrementAndGet();
+            release.await(); // 다른 호출들이 들어올 때까지 leader를 붙잡아 둠
+            return "loaded";
+        }, release);
+
+        //then
+        int leaders = 0;
+        for (Future<SingleFlight.Flight<String>> future : futures) {
+            SingleFlight.Flight<String> flight = future.get(5, TimeUnit.SECONDS);
+            assertThat(flight.getValue()).isEqualTo("loaded");
+            leaders += flight.isLeader() ? 1 : 0;
+        }
+        assertThat(loads.get()).isEqualTo(1);
+        assertThat(leaders).isEqualTo(1);
+        assertThat(singleFlight.inFlightCount()).isZero();
+    }
+
+    @Test
+    void leaderExceptionPropagatesToFollowers() throws Exception {
+        //given
+        CountDownLatch release = new CountDownLatch(1);
+
+        //when
+        List<Future<SingleFlight.Flight<String>>> futures = callConcurrently("member2", () -> {
+            release.await();
+            throw new IllegalStateException("db down");
+        }, release);
+
+        //then
+        for (Future<SingleFlight.Flight<String>> future : futures) {
+            assertThatThrownBy(() -> future.get(5, TimeUnit.SECONDS))
+                    .hasCauseInstanceOf(IllegalStateException.class)
+                    .hasRootCauseMessage("db down");
+        }
+        assertThat(singleFlight.inFlightCount()).isZero();
+    }
+
+    @Test
+    void differentKeysDoNotWait() throws Throwable {
+        CountDownLatch never = new CountDownLatch(1);
+        pool.submit(() -> singleFlight.execute("slow", () -> {
+            never.await();
+            return "slow";
+        }));
+
+        // 다른 key는 slow 호출과 상관없이 바로 실행
+        assertThat(singleFlight.execute("fast", () -> "fast").getValue()).isEqualTo("fast");
+        never.countDown();
+        pool.shutdown();
+    }
+
+    private List<Future<SingleFlight.Flight<String>>> callConcurrently(String key, SingleFlight.Loader<String> loader,
+                                                                      CountDownLatch release) {
+        List<Future<SingleFlight.Flight<String>>> futures = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            futures.add(pool.submit(() -> {
+                try {
+                    return singleFlight.execute(key, loader);
+                } catch (Throwable e) {
+                    throw new IllegalStateException(e);
+                }
+            }));
+        }
+        // 나머지 호출이 모두 follower로 leader를 기다리고 있을 때 leader를 풀어줌 (늦게 온 호출이 두번째 leader가 되지 않도록)
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (singleFlight.followerCount(key) < CALLERS - 1) {
+            assertThat(System.nanoTime()).as("follower 대기").isLessThan(deadline);
+            Thread.onSpinWait();
+        }
+        release.countDown();
+        return futures;
+    }
+}
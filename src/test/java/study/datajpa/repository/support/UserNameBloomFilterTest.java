@@ -0,0 +1,73 @@
+package study.datajpa.repository.support;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class UserNameBloomFilterTest {
+
+    @Test
+    void noFalseNegativesAndConfiguredFalsePositiveRate() {
+        //given
+        UserNameBloomFilter filter = new UserNameBloomFilter(true, 10_000, 0.01, new SimpleMeterRegistry());
+        filter.beginRebuild();
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("member" + i);
+        }
+        filter.completeRebuild();
+
+        //when
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain("absent" + i)) {
+                falsePositives++;
+            }
+        }
+
+        //then
+        for (int i = 0; i < 10_000; i++) {
+            assertThat(filter.mightContain("member" + i)).isTrue();
+        }
+        assertThat(falsePositives / 100_000.0).isLessThan(0.02); // 설정 1%, 여유를 둠
+        assertThat(filter.estimatedFalsePositiveRate()).isBetween(0.005, 0.015);
+    }
+
+    @Test
+    void mightContainEverythingUntilBuilt() {
+        UserNameBloomFilter filter = new UserNameBloomFilter(true, 1000, 0.01, new SimpleMeterRegistry());
+
+        assertThat(filter.mightContain("anyone")).isTrue();
+    }
+
+    @Test
+    void rebuildDropsRemovedNamesAndKeepsConcurrentPuts() {
+        //given
+        UserNameBloomFilter filter = new UserNameBloomFilter(true, 1000, 0.001, new SimpleMeterRegistry());
+        filter.beginRebuild();
+        filter.put("removed");
+        filter.completeRebuild();
+
+        //when
+        filter.beginRebuild(); // "removed"는 DB에서 삭제되어 rebuild 조회에 안 나옴
+        filter.put("addedDuringRebuild"); // rebuild 중에 저장된 회원
+        filter.completeRebuild();
+
+        //then
+        assertThat(filter.mightContain("removed")).isFalse();
+        assertThat(filter.mightContain("addedDuringRebuild")).isTrue();
+    }
+
+    @Test
+    void rejectsInvalidSettings() {
+        assertThatThrownBy(() -> new UserNameBloomFilter(true, 0, 0.01, new SimpleMeterRegistry()))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new UserNameBloomFilter(true, 1000, 0, new SimpleMeterRegistry()))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new UserNameBloomFilter(true, 1000, 1.5, new SimpleMeterRegistry()))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new UserNameBloomFilter(true, 1000, Double.NaN, new SimpleMeterRegistry()))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,52 @@
+package study.datajpa.repository.support;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 커밋된 회원으로 확인하기 위해 테스트 트랜잭션(@Transactional) 없이 실행
+ */
+@SpringBootTest
+class UserNameFilterAspectTest {
+
+    @Autowired MemberRepository memberRepository;
+    @Autowired JdbcStatementStats statementStats;
+    @Autowired MeterRegistry meterRegistry;
+
+    private Member member;
+
+    @AfterEach
+    void cleanUp() {
+        memberRepository.deleteById(member.getId());
+    }
+
+    @Test
+    void absentNameSkipsDatabase() {
+        //given
+        member = memberRepository.save(new Member("bloomMember", 10)); // 저장하면 필터에 바로 추가
+        double skippedBefore = skipped();
+
+        //when
+        StatementCount absent = statementStats.measure(() -> {
+            assertThat(memberRepository.findMemberByUserName("bloomNobody")).isNull();
+            assertThat(memberRepository.findOptionalByUserName("bloomNobody")).isEmpty();
+            assertThat(memberRepository.findListByUserName("bloomNobody")).isEmpty();
+        });
+
+        //then
+        assertThat(absent.getStatements()).isZero();
+        assertThat(skipped() - skippedBefore).isEqualTo(3);
+        assertThat(memberRepository.findMemberByUserName("bloomMember").getId()).isEqualTo(member.getId());
+    }
+
+    private double skipped() {
+        return meterRegistry.counter("member.user_name_filter.lookups", "result", "skipped").count();
+    }
+}